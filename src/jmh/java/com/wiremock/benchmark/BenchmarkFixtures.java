@@ -0,0 +1,64 @@
+package com.wiremock.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.Movie;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payloads shared by the benchmarks, built from the WireMock fixtures of the test source set. The benchmarks
+ * run with the project directory as working directory.
+ */
+final class BenchmarkFixtures {
+
+    static final Path FILES = Paths.get("src", "test", "resources", "__files");
+
+    private BenchmarkFixtures() {
+    }
+
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static String read(String fileName) {
+        try {
+            return new String(Files.readAllBytes(FILES.resolve(fileName)), "UTF-8");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Repeats the movies of {@code all-movies.json} with fresh ids until the list holds {@code size} movies.
+     */
+    static List<Movie> movies(int size) {
+        try {
+            List<Movie> template = objectMapper().readValue(read("all-movies.json"), new TypeReference<List<Movie>>() {
+            });
+            List<Movie> movies = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Movie movie = template.get(i % template.size());
+                movies.add(new Movie(i + 1, movie.getCast(), movie.getName(), movie.getRelease_date(), movie.getYear()));
+            }
+            return movies;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static byte[] moviesJson(int size) {
+        try {
+            return objectMapper().writeValueAsBytes(movies(size));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.wiremock.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.service.BlockingCallExecutors;
+import com.wiremock.service.MoviesRestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Time to complete {@code calls} concurrent lookups of distinct movies against a WireMock server that answers
+ * each after {@code delayMillis}, with one pooled connection per call:
+ * <ul>
+ *     <li>{@code platform}: blocking calls submitted to one platform thread per call,</li>
+ *     <li>{@code virtual}: the same on one virtual thread per call, the default call executor on Java 21,</li>
+ *     <li>{@code reactive}: a single fan-out through the reactive client, no thread per call at all.</li>
+ * </ul>
+ * The ideal is {@code delayMillis}; whatever is added on top is the cost of the execution model. Virtual threads
+ * need a Java 21 runtime, {@code ./gradlew jmh -PjmhInclude=BlockingExecutor -PjmhJavaVersion=21}; on older
+ * runtimes the {@code virtual} case fails in its setup and the others still run. Raise the open files limit
+ * before running with 10k calls: client and server share it, and each call holds a socket on both sides.
+ * <p>
+ * On a single CPU with Java 17, 1k calls took 643 ± 194 ms on platform threads and 676 ± 105 ms reactive,
+ * so at that scale the thread per call costs no more than the fan-out. 10k calls could not be measured there:
+ * with an open files limit of 20000 the connections ran into connect timeouts. It takes about ten warm-up
+ * iterations before the times settle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 12)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockingExecutorBenchmark {
+
+    @Param({"platform", "virtual", "reactive"})
+    String mode;
+
+    @Param({"10000"})
+    int calls;
+
+    @Param({"100"})
+    int delayMillis;
+
+    private WireMockServer wireMockServer;
+    private ExecutorService callExecutor;
+    private MoviesRestClient moviesRestClient;
+    private List<Integer> movieIds;
+
+    @Setup
+    public void setUp() {
+        if ("virtual".equals(mode)) {
+            callExecutor = BlockingCallExecutors.virtualThreads();
+        } else {
+            callExecutor = BlockingCallExecutors.platformThreads("benchmark");
+        }
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(8)
+                .disableRequestJournal());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathMatching(
+                MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(BenchmarkFixtures.read("movie_2.json"))
+                        .withFixedDelay(delayMillis)));
+
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl("http://localhost:" + wireMockServer.port())
+                .maxConnections(calls)
+                .pendingAcquireTimeout(Duration.ofMinutes(1))
+                .callExecutor(callExecutor)
+                .build();
+        movieIds = new ArrayList<>(calls);
+        IntStream.rangeClosed(1, calls).forEach(movieIds::add);
+    }
+
+    @TearDown
+    public void tearDown() {
+        moviesRestClient.close();
+        callExecutor.shutdownNow();
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public Object lookups() {
+        if ("reactive".equals(mode)) {
+            return moviesRestClient.reactive().retrieveMoviesByIds(movieIds, calls).collectList().block();
+        }
+        List<CompletableFuture<Movie>> movies = moviesRestClient.submitAll(movieIds, MoviesRestClient::retrieveMovieById);
+        return CompletableFuture.allOf(movies.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
@@ -0,0 +1,106 @@
+package com.wiremock.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.metrics.MoviesClientMetrics;
+import com.wiremock.service.MovieLookup;
+import com.wiremock.service.MoviesRestClient;
+import com.wiremock.service.ReactiveMoviesRestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Round trips against an in-process WireMock server: a single blocking call, the same call through the reactive
+ * client, and a batch of lookups done one by one versus fanned out. {@code metrics} measures the overhead of
+ * {@link MoviesClientMetrics}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientRoundTripBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"false", "true"})
+    boolean metrics;
+
+    private WireMockServer wireMockServer;
+    private MoviesRestClient moviesRestClient;
+    private ReactiveMoviesRestClient reactiveClient;
+    private List<Integer> batch;
+
+    @Setup
+    public void setUp() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(64).disableRequestJournal());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathMatching(
+                MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(BenchmarkFixtures.read("movie_2.json"))));
+
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl("http://localhost:" + wireMockServer.port())
+                .metrics(metrics ? new MoviesClientMetrics() : null)
+                .build();
+        reactiveClient = moviesRestClient.reactive();
+        batch = new ArrayList<>();
+        IntStream.rangeClosed(1, BATCH_SIZE).forEach(batch::add);
+    }
+
+    @TearDown
+    public void tearDown() {
+        moviesRestClient.close();
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public Movie blocking() {
+        return moviesRestClient.retrieveMovieById(2);
+    }
+
+    @Benchmark
+    public Movie reactive() {
+        return reactiveClient.retrieveMovieById(2).block();
+    }
+
+    @Benchmark
+    public List<Movie> blockingBatch() {
+        List<Movie> movies = new ArrayList<>(BATCH_SIZE);
+        for (Integer movieId : batch) {
+            movies.add(moviesRestClient.retrieveMovieById(movieId));
+        }
+        return movies;
+    }
+
+    @Benchmark
+    public List<MovieLookup> reactiveBatch() {
+        return reactiveClient.retrieveMoviesByIds(batch).collectList().block();
+    }
+}
@@ -0,0 +1,83 @@
+package com.wiremock.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.Movie;
+import com.wiremock.codec.MovieDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of movie lists through plain databind, through the {@link Jackson2JsonDecoder} the {@code WebClient}
+ * uses by default, which tokenizes the array and binds element by element, and through {@link MovieDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieDeserializationBenchmark {
+
+    private static final ResolvableType MOVIE_TYPE = ResolvableType.forClass(Movie.class);
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private ObjectMapper objectMapper;
+    private JavaType movieListType;
+    private Jackson2JsonDecoder decoder;
+    private MovieDecoder movieDecoder;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        movieListType = objectMapper.getTypeFactory().constructCollectionType(List.class, Movie.class);
+        decoder = new Jackson2JsonDecoder(objectMapper);
+        movieDecoder = new MovieDecoder();
+        payload = BenchmarkFixtures.moviesJson(size);
+    }
+
+    @Benchmark
+    public List<Movie> objectMapper() throws IOException {
+        return objectMapper.readValue(payload, movieListType);
+    }
+
+    @Benchmark
+    public List<Object> webClientDecoder() {
+        Flux<DataBuffer> body = Flux.just(bufferFactory.wrap(payload));
+        return decoder.decode(body, MOVIE_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Movie> movieDecoder() {
+        Flux<DataBuffer> body = Flux.just(bufferFactory.wrap(payload));
+        return movieDecoder.decode(body, MOVIE_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+}
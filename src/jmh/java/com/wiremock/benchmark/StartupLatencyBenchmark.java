@@ -0,0 +1,95 @@
+package com.wiremock.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.service.MoviesRestClient;
+import com.wiremock.service.WarmUpPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Latency of the very first call of a freshly built client in a fresh JVM, with and without
+ * {@link MoviesRestClient#warmUp(WarmUpPlan)}. Every measurement forks its own JVM; the WireMock server is
+ * exercised with plain {@link HttpURLConnection} requests first, so that only the movies client starts cold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupLatencyBenchmark {
+
+    @Param({"false", "true"})
+    boolean warmUp;
+
+    private WireMockServer wireMockServer;
+    private MoviesRestClient moviesRestClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort().disableRequestJournal());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathMatching(
+                MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(BenchmarkFixtures.read("movie_2.json"))));
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+        warmUpServer(baseUrl);
+
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).build();
+        if (warmUp) {
+            moviesRestClient.warmUp(WarmUpPlan.builder()
+                    .syntheticRequest(client -> client.retrieveMovieById(1))
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        moviesRestClient.close();
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public Movie firstCall() {
+        return moviesRestClient.retrieveMovieById(2);
+    }
+
+    private static void warmUpServer(String baseUrl) throws IOException {
+        for (int i = 0; i < 200; i++) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl
+                    + MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + 1).openConnection();
+            try (InputStream body = connection.getInputStream()) {
+                while (body.read() >= 0) {
+                    // drain so that the connection is reused
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.wiremock.benchmark;
+
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.service.MovieEndpoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of expanding the query endpoints per call. {@code concatenation} is the floor any faster implementation
+ * of {@link MovieEndpoints} could reach.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriBuildingBenchmark {
+
+    String name = "The Dark Knight Rises";
+    int year = 2012;
+
+    @Benchmark
+    public String moviesByName() {
+        return MovieEndpoints.moviesByName(name);
+    }
+
+    @Benchmark
+    public String moviesByYear() {
+        return MovieEndpoints.moviesByYear(year);
+    }
+
+    @Benchmark
+    public String concatenation() {
+        return MoviesAppConstants.GET_MOVIE_BY_NAME + "?movie_name="
+                + UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.wiremock.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Decode cost of the catalog in the formats the client can negotiate. The encoded size of each payload, which
+ * is what goes over the wire, is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile"})
+    String format;
+
+    @Param({"identity", "gzip"})
+    String encoding;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType movieListType;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = format.equals("smile")
+                ? Jackson2ObjectMapperBuilder.smile().build() : Jackson2ObjectMapperBuilder.json().build();
+        movieListType = objectMapper.getTypeFactory().constructCollectionType(List.class, Movie.class);
+        byte[] encoded = objectMapper.writeValueAsBytes(BenchmarkFixtures.movies(size));
+        payload = encoding.equals("gzip") ? gzip(encoded) : encoded;
+        System.out.printf("%n%s/%s with %d movies: %d bytes on the wire%n", format, encoding, size, payload.length);
+    }
+
+    @Benchmark
+    public List<Movie> decode() throws IOException {
+        InputStream body = new ByteArrayInputStream(payload);
+        if (encoding.equals("gzip")) {
+            body = new GZIPInputStream(body, 8192);
+        }
+        return objectMapper.readValue(body, movieListType);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,169 @@
+package com.wiremock.loadtest;
+
+import com.wiremock.metrics.LatencyHistogram;
+import com.wiremock.service.MoviesRestClient;
+import com.wiremock.service.ReactiveMoviesRestClient;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives one {@link Workload} against a movie service and measures it. Calls look up random ids, so that the
+ * client's coalescing of identical in-flight GETs does not flatter the numbers.
+ */
+class LoadDriver {
+
+    private static final int MOVIE_IDS = 1_000_000;
+
+    private final String baseUrl;
+
+    LoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    LoadTestResult run(Workload workload) throws InterruptedException {
+        Measurement measurement = new Measurement(workload);
+        try (MoviesRestClient client = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .poolName("load-test")
+                .maxConnections(Math.max(workload.getCallers(), 1000))
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .build();
+             ResourceSampler sampler = new ResourceSampler()) {
+            if (workload.getMode() == Workload.Mode.CLOSED) {
+                runClosed(workload, client, measurement);
+            } else {
+                runOpen(workload, client.reactive(), measurement);
+            }
+            return measurement.toResult(sampler);
+        }
+    }
+
+    private void runClosed(Workload workload, MoviesRestClient client, Measurement measurement)
+            throws InterruptedException {
+        long pacing = workload.getPacing().toNanos();
+        CountDownLatch finished = new CountDownLatch(workload.getCallers());
+        ExecutorService callers = Executors.newFixedThreadPool(workload.getCallers(), runnable -> {
+            Thread thread = new Thread(runnable, "load-test-caller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workload.getCallers(); i++) {
+            callers.execute(() -> {
+                long intended = System.nanoTime();
+                while (intended < measurement.endNanos) {
+                    parkUntil(intended);
+                    long sent = System.nanoTime();
+                    boolean succeeded = call(client);
+                    measurement.record(intended, sent, System.nanoTime(), succeeded);
+                    intended = pacing > 0 ? intended + pacing : System.nanoTime();
+                }
+                finished.countDown();
+            });
+        }
+        finished.await();
+        callers.shutdown();
+    }
+
+    private void runOpen(Workload workload, ReactiveMoviesRestClient client, Measurement measurement)
+            throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / workload.getRatePerSecond();
+        AtomicInteger outstanding = new AtomicInteger();
+        for (long intended = measurement.startNanos; intended < measurement.endNanos; intended += period) {
+            parkUntil(intended);
+            long due = intended;
+            long sent = System.nanoTime();
+            if (outstanding.incrementAndGet() > workload.getMaxOutstanding()) {
+                outstanding.decrementAndGet();
+                measurement.record(due, sent, sent, false);
+                continue;
+            }
+            client.retrieveMovieById(randomMovieId())
+                    .doFinally(signal -> outstanding.decrementAndGet())
+                    .subscribe(movie -> measurement.record(due, sent, System.nanoTime(), true),
+                            ex -> measurement.record(due, sent, System.nanoTime(), false));
+        }
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean call(MoviesRestClient client) {
+        try {
+            client.retrieveMovieById(randomMovieId());
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private static int randomMovieId() {
+        return ThreadLocalRandom.current().nextInt(1, MOVIE_IDS);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static final class Measurement {
+
+        private final Workload workload;
+        private final long startNanos = System.nanoTime();
+        private final long measureFromNanos;
+        private final long endNanos;
+        private final LatencyHistogram serviceLatency = new LatencyHistogram();
+        private final LatencyHistogram correctedLatency = new LatencyHistogram();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Measurement(Workload workload) {
+            this.workload = workload;
+            this.measureFromNanos = startNanos + workload.getWarmup().toNanos();
+            this.endNanos = measureFromNanos + workload.getDuration().toNanos();
+        }
+
+        /**
+         * Only calls due after the warm-up count. Failed calls are left out of the latency histograms.
+         */
+        void record(long intendedNanos, long sentNanos, long completedNanos, boolean succeeded) {
+            if (intendedNanos < measureFromNanos) {
+                return;
+            }
+            requests.incrementAndGet();
+            if (!succeeded) {
+                errors.incrementAndGet();
+                return;
+            }
+            serviceLatency.record(completedNanos - sentNanos);
+            correctedLatency.record(completedNanos - intendedNanos);
+        }
+
+        LoadTestResult toResult(ResourceSampler sampler) {
+            LoadTestResult result = new LoadTestResult();
+            result.setWorkload(workload.getName());
+            result.setMode(workload.getMode().name());
+            result.setCallers(workload.getMode() == Workload.Mode.CLOSED ? workload.getCallers() : 0);
+            result.setRatePerSecond(workload.getMode() == Workload.Mode.OPEN ? workload.getRatePerSecond() : 0);
+            result.setUpstreamDelay(workload.getUpstreamDelay().toString());
+            result.setRequests(requests.get());
+            result.setErrors(errors.get());
+            result.setThroughputPerSecond((requests.get() - errors.get()) * 1000.0 / workload.getDuration().toMillis());
+            result.setServiceLatency(serviceLatency.snapshot());
+            result.setCorrectedLatency(correctedLatency.snapshot());
+            result.setPeakThreads(sampler.getPeakThreads());
+            result.setPeakHeapBytes(sampler.getPeakHeapBytes());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.wiremock.loadtest;
+
+import com.wiremock.metrics.HistogramSnapshot;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one {@link Workload}. Latencies are in microseconds. {@code service} latencies run from sending a
+ * call to its completion; {@code corrected} latencies run from the time the call was due, so they include the
+ * wait of calls that could not be started on schedule (coordinated omission).
+ */
+@Data
+@NoArgsConstructor
+public class LoadTestResult {
+
+    private String workload;
+    private String mode;
+    private int callers;
+    private int ratePerSecond;
+    private String upstreamDelay;
+    private long requests;
+    private long errors;
+    private double throughputPerSecond;
+    private long serviceP50Micros;
+    private long serviceP99Micros;
+    private long serviceP999Micros;
+    private long serviceMaxMicros;
+    private long correctedP50Micros;
+    private long correctedP99Micros;
+    private long correctedP999Micros;
+    private long correctedMaxMicros;
+    private int peakThreads;
+    private long peakHeapBytes;
+
+    void setServiceLatency(HistogramSnapshot latency) {
+        serviceP50Micros = micros(latency.getP50());
+        serviceP99Micros = micros(latency.getP99());
+        serviceP999Micros = micros(latency.getP999());
+        serviceMaxMicros = micros(latency.getMax());
+    }
+
+    void setCorrectedLatency(HistogramSnapshot latency) {
+        correctedP50Micros = micros(latency.getP50());
+        correctedP99Micros = micros(latency.getP99());
+        correctedP999Micros = micros(latency.getP999());
+        correctedMaxMicros = micros(latency.getMax());
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
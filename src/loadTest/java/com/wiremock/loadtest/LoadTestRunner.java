@@ -0,0 +1,127 @@
+package com.wiremock.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.constants.MoviesAppConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Runs a profile of workloads against an embedded WireMock server serving the fixtures of
+ * {@code MoviesRestClientTest}, writes the results as JSON and, given a baseline, fails on regressions.
+ * <p>
+ * Arguments: {@code <quick|full> <results file> [baseline file] [tolerance]}. The tolerance defaults to 0.2.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        String profile = args.length > 0 ? args[0] : "quick";
+        File resultsFile = new File(args.length > 1 ? args[1] : "build/reports/loadtest/results.json");
+        File baselineFile = args.length > 2 && !args[2].isEmpty() ? new File(args[2]) : null;
+        double tolerance = args.length > 3 ? Double.parseDouble(args[3]) : 0.2;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<LoadTestResult> results = new ArrayList<>();
+        WireMockServer wireMockServer = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .usingFilesUnderDirectory("src/test/resources")
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal()
+                .extensions(new ResponseTemplateTransformer(true)));
+        wireMockServer.start();
+        try {
+            LoadDriver driver = new LoadDriver("http://localhost:" + wireMockServer.port());
+            for (Workload workload : workloads(profile)) {
+                stubMovieById(wireMockServer, workload.getUpstreamDelay());
+                LoadTestResult result = driver.run(workload);
+                results.add(result);
+                System.out.println(summary(result));
+            }
+        } finally {
+            wireMockServer.stop();
+        }
+
+        resultsFile.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultsFile, results);
+        System.out.println("Results written to " + resultsFile);
+
+        if (baselineFile != null) {
+            List<LoadTestResult> baseline = objectMapper.readValue(baselineFile,
+                    new TypeReference<List<LoadTestResult>>() {
+                    });
+            List<String> regressions = new RegressionCheck(tolerance).compare(baseline, results);
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            if (!regressions.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    static List<Workload> workloads(String profile) {
+        List<Workload> workloads = new ArrayList<>();
+        List<Integer> callers = profile.equals("full") ? Arrays.asList(1, 10, 100, 1000) : Arrays.asList(1, 10, 100);
+        List<Integer> rates = profile.equals("full") ? Arrays.asList(100, 1000, 5000) : Arrays.asList(100, 500);
+        Duration duration = profile.equals("full") ? Duration.ofSeconds(30) : Duration.ofSeconds(10);
+        Duration warmup = profile.equals("full") ? Duration.ofSeconds(10) : Duration.ofSeconds(3);
+        List<UpstreamDelay> delays = Arrays.asList(UpstreamDelay.fixed(20), UpstreamDelay.uniform(5, 100));
+
+        for (UpstreamDelay delay : delays) {
+            for (int count : callers) {
+                workloads.add(Workload.builder()
+                        .name("closed-" + count + "-" + delay)
+                        .mode(Workload.Mode.CLOSED)
+                        .callers(count)
+                        .upstreamDelay(delay)
+                        .warmup(warmup)
+                        .duration(duration)
+                        .build());
+            }
+            for (int rate : rates) {
+                workloads.add(Workload.builder()
+                        .name("open-" + rate + "rps-" + delay)
+                        .mode(Workload.Mode.OPEN)
+                        .ratePerSecond(rate)
+                        .upstreamDelay(delay)
+                        .warmup(warmup)
+                        .duration(duration)
+                        .build());
+            }
+        }
+        return workloads;
+    }
+
+    private static void stubMovieById(WireMockServer wireMockServer, UpstreamDelay delay) {
+        wireMockServer.resetMappings();
+        wireMockServer.stubFor(get(urlPathMatching(
+                MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]+"))
+                .willReturn(delay.applyTo(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json"))));
+    }
+
+    private static String summary(LoadTestResult result) {
+        return String.format("%-28s %8d req %6d err %9.1f/s  p50 %7d us  p99 %7d us  p99.9 %7d us"
+                        + "  (corrected p99 %7d us)  threads %4d  heap %4d MB",
+                result.getWorkload(), result.getRequests(), result.getErrors(), result.getThroughputPerSecond(),
+                result.getServiceP50Micros(), result.getServiceP99Micros(), result.getServiceP999Micros(),
+                result.getCorrectedP99Micros(), result.getPeakThreads(), result.getPeakHeapBytes() >> 20);
+    }
+}
@@ -0,0 +1,63 @@
+package com.wiremock.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the results of a run against a stored baseline, workload by workload. A workload regresses when its
+ * coordinated-omission-corrected p99 or p99.9 grows, or its throughput or success rate drops, by more than
+ * {@code tolerance}.
+ */
+class RegressionCheck {
+
+    private final double tolerance;
+
+    RegressionCheck(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    List<String> compare(List<LoadTestResult> baseline, List<LoadTestResult> current) {
+        Map<String, LoadTestResult> baselineByWorkload = baseline.stream()
+                .collect(Collectors.toMap(LoadTestResult::getWorkload, Function.identity()));
+        List<String> regressions = new ArrayList<>();
+        for (LoadTestResult result : current) {
+            LoadTestResult before = baselineByWorkload.get(result.getWorkload());
+            if (before == null) {
+                continue;
+            }
+            checkIncrease(regressions, result, "corrected p99 (us)", before.getCorrectedP99Micros(),
+                    result.getCorrectedP99Micros());
+            checkIncrease(regressions, result, "corrected p99.9 (us)", before.getCorrectedP999Micros(),
+                    result.getCorrectedP999Micros());
+            checkDecrease(regressions, result, "throughput (/s)", before.getThroughputPerSecond(),
+                    result.getThroughputPerSecond());
+            checkDecrease(regressions, result, "success rate", successRate(before), successRate(result));
+        }
+        return regressions;
+    }
+
+    private void checkIncrease(List<String> regressions, LoadTestResult result, String metric,
+                               double before, double now) {
+        if (now > before * (1 + tolerance)) {
+            regressions.add(format(result, metric, before, now));
+        }
+    }
+
+    private void checkDecrease(List<String> regressions, LoadTestResult result, String metric,
+                               double before, double now) {
+        if (now < before * (1 - tolerance)) {
+            regressions.add(format(result, metric, before, now));
+        }
+    }
+
+    private static double successRate(LoadTestResult result) {
+        return result.getRequests() == 0 ? 0 : 1 - result.getErrors() / (double) result.getRequests();
+    }
+
+    private static String format(LoadTestResult result, String metric, double before, double now) {
+        return String.format("%s: %s went from %.2f to %.2f", result.getWorkload(), metric, before, now);
+    }
+}
@@ -0,0 +1,43 @@
+package com.wiremock.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Tracks the peak thread count and heap usage of the JVM while a workload runs.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-test-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ResourceSampler() {
+        threads.resetPeakThreadCount();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulate(memory.getHeapMemoryUsage().getUsed()),
+                0, 50, TimeUnit.MILLISECONDS);
+    }
+
+    int getPeakThreads() {
+        return threads.getPeakThreadCount();
+    }
+
+    long getPeakHeapBytes() {
+        return peakHeap.get();
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+}
@@ -0,0 +1,347 @@
+package com.wiremock.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.metrics.LatencyHistogram;
+import com.wiremock.metrics.TraceRecord;
+import com.wiremock.metrics.TrafficRecorder;
+import com.wiremock.service.MoviesRestClient;
+import com.wiremock.service.ReactiveMoviesRestClient;
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.delete;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.request;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Re-drives a trace written by {@link TrafficRecorder} through the reactive client against an embedded WireMock
+ * server, writes the results as JSON and, given a baseline, fails on regressions like {@link LoadTestRunner}.
+ * <p>
+ * After an unmeasured warm-up, every call is started at its recorded offset divided by {@code rate scale},
+ * whether or not earlier calls have completed. The stubs answer from the fixtures of {@code MoviesRestClientTest};
+ * paths that failed in the trace fail again with the recorded status, or a connection reset when no response was
+ * recorded. A call counts as an error when its outcome differs from the recorded one. Results are reported per
+ * operation and for the whole trace, under workload names that include the rate scale; operations the replay does
+ * not know, such as warm-up requests, are skipped.
+ * <p>
+ * Arguments: {@code <trace file> <results file> [rate scale] [baseline file] [tolerance]}. The rate scale
+ * defaults to 1, the tolerance to 0.2.
+ */
+public class TraceReplay {
+
+    private static final String ALL = "all";
+    private static final int MAX_OUTSTANDING = 20_000;
+    private static final int WARMUP_CALLS = 5_000;
+    private static final int WARMUP_CONCURRENCY = 32;
+    private static final Movie SAMPLE_MOVIE = new Movie(0, "Christian Bale, Heath Ledger , Michael Caine",
+            "Dark Knight", LocalDate.of(2008, 7, 18), 2008);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.err.println("Usage: TraceReplay <trace file> [results file] [rate scale] [baseline file]"
+                    + " [tolerance]");
+            System.exit(2);
+        }
+        List<TraceRecord> trace = TrafficRecorder.read(Paths.get(args[0]));
+        File resultsFile = new File(args.length > 1 ? args[1] : "build/reports/loadtest/replay.json");
+        double rateScale = args.length > 2 && !args[2].isEmpty() ? Double.parseDouble(args[2]) : 1;
+        File baselineFile = args.length > 3 && !args[3].isEmpty() ? new File(args[3]) : null;
+        double tolerance = args.length > 4 ? Double.parseDouble(args[4]) : 0.2;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        WireMockServer wireMockServer = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .usingFilesUnderDirectory("src/test/resources")
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal()
+                .extensions(new ResponseTemplateTransformer(true)));
+        wireMockServer.start();
+        List<LoadTestResult> results;
+        try {
+            stubFixtures(wireMockServer);
+            stubRecordedFailures(wireMockServer, trace);
+            results = replay(trace, rateScale, "http://localhost:" + wireMockServer.port());
+        } finally {
+            wireMockServer.stop();
+        }
+        results.forEach(result -> System.out.println(summary(result)));
+
+        resultsFile.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultsFile, results);
+        System.out.println("Results written to " + resultsFile);
+
+        if (baselineFile != null) {
+            List<LoadTestResult> baseline = objectMapper.readValue(baselineFile,
+                    new TypeReference<List<LoadTestResult>>() {
+                    });
+            List<String> regressions = new RegressionCheck(tolerance).compare(baseline, results);
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            if (!regressions.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    static List<LoadTestResult> replay(List<TraceRecord> trace, double rateScale, String baseUrl)
+            throws InterruptedException {
+        Map<String, Measurement> measurements = new TreeMap<>();
+        String rate = "x" + BigDecimal.valueOf(rateScale).stripTrailingZeros().toPlainString();
+        Measurement all = new Measurement("replay-" + rate + "-" + ALL);
+        long skipped = 0;
+        try (MoviesRestClient client = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .poolName("trace-replay")
+                .maxConnections(1000)
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .build();
+             ResourceSampler sampler = new ResourceSampler()) {
+            warmUp(client.reactive(), trace);
+            AtomicInteger outstanding = new AtomicInteger();
+            long startNanos = System.nanoTime();
+            for (TraceRecord record : trace) {
+                Publisher<?> call = toCall(client.reactive(), record);
+                if (call == null) {
+                    skipped++;
+                    continue;
+                }
+                Measurement operation = measurements.computeIfAbsent(record.getOperation(),
+                        name -> new Measurement("replay-" + rate + "-" + name));
+                boolean expectSuccess = record.getStatus() != TraceRecord.NO_RESPONSE && record.getStatus() < 400;
+                long intended = startNanos
+                        + (long) (TimeUnit.MICROSECONDS.toNanos(record.getOffsetMicros()) / rateScale);
+                parkUntil(intended);
+                long sent = System.nanoTime();
+                if (outstanding.incrementAndGet() > MAX_OUTSTANDING) {
+                    outstanding.decrementAndGet();
+                    operation.record(intended, sent, sent, false);
+                    all.record(intended, sent, sent, false);
+                    continue;
+                }
+                Flux.from(call)
+                        .then()
+                        .doFinally(signal -> outstanding.decrementAndGet())
+                        .subscribe(null,
+                                ex -> {
+                                    operation.record(intended, sent, System.nanoTime(), !expectSuccess);
+                                    all.record(intended, sent, System.nanoTime(), !expectSuccess);
+                                },
+                                () -> {
+                                    operation.record(intended, sent, System.nanoTime(), expectSuccess);
+                                    all.record(intended, sent, System.nanoTime(), expectSuccess);
+                                });
+            }
+            long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (skipped > 0) {
+                System.out.println("Skipped " + skipped + " records of operations the replay does not know");
+            }
+
+            List<LoadTestResult> results = new ArrayList<>();
+            results.add(all.toResult(elapsedNanos, sampler));
+            for (Measurement measurement : measurements.values()) {
+                results.add(measurement.toResult(elapsedNanos, sampler));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Sends {@link #WARMUP_CALLS} calls of the trace back to back and unmeasured, so that neither the client
+     * nor WireMock starts the timed replay cold.
+     */
+    private static void warmUp(ReactiveMoviesRestClient client, List<TraceRecord> trace) {
+        if (trace.isEmpty()) {
+            return;
+        }
+        Flux.range(0, WARMUP_CALLS)
+                .map(i -> trace.get(i % trace.size()))
+                .flatMap(record -> {
+                    Publisher<?> call = toCall(client, record);
+                    return call == null ? Mono.<Void>empty() : Flux.from(call).then().onErrorResume(ex -> Mono.empty());
+                }, WARMUP_CONCURRENCY)
+                .blockLast();
+    }
+
+    /**
+     * @return the client call that produced {@code record}, or {@code null} for operations the replay does not know
+     */
+    private static Publisher<?> toCall(ReactiveMoviesRestClient client, TraceRecord record) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(record.getUri()).build();
+        switch (record.getOperation()) {
+            case "retrieveAllMovies":
+                return client.retrieveAllMovies();
+            case "streamAllMovies":
+                return client.streamAllMovies();
+            case "retrieveMovieById":
+                return client.retrieveMovieById(lastSegment(uri));
+            case "retrieveMovieByName":
+                return client.retrieveMovieByName(UriUtils.decode(uri.getQueryParams().getFirst("movie_name"),
+                        StandardCharsets.UTF_8));
+            case "retrieveMovieByYear":
+                return client.retrieveMovieByYear(Integer.parseInt(uri.getQueryParams().getFirst("year")));
+            case "addMovie":
+                return client.addMovie(SAMPLE_MOVIE);
+            case "updateMovie":
+                return client.updateMovie(lastSegment(uri), SAMPLE_MOVIE);
+            case "deleteMovie":
+                return client.deleteMovie(lastSegment(uri));
+            default:
+                return null;
+        }
+    }
+
+    private static int lastSegment(UriComponents uri) {
+        List<String> segments = uri.getPathSegments();
+        return Integer.parseInt(segments.get(segments.size() - 1));
+    }
+
+    private static void stubFixtures(WireMockServer wireMockServer) {
+        String movieById = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]+";
+        wireMockServer.stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(json("all-movies.json")));
+        wireMockServer.stubFor(get(urlPathMatching(movieById))
+                .willReturn(json("movie_2_dynamic_response_templat.json")));
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_NAME))
+                .willReturn(json("movie_by_name_template.json")));
+        wireMockServer.stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .willReturn(json("movies_by_year_response.json")));
+        wireMockServer.stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .willReturn(json("add_movie.json")));
+        wireMockServer.stubFor(put(urlPathMatching(movieById))
+                .willReturn(json("updated_movie.json")));
+        wireMockServer.stubFor(delete(urlPathMatching(movieById))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withBody("Movie Deleted Successfully")));
+    }
+
+    /**
+     * Lets every path that failed in the trace fail again the same way. Paths are matched as recorded, so a
+     * path that both failed and succeeded in the trace fails throughout the replay.
+     */
+    private static void stubRecordedFailures(WireMockServer wireMockServer, List<TraceRecord> trace) {
+        Set<String> stubbed = new HashSet<>();
+        for (TraceRecord record : trace) {
+            if (record.getStatus() != TraceRecord.NO_RESPONSE && record.getStatus() < 400) {
+                continue;
+            }
+            if (!stubbed.add(record.getMethod() + " " + record.getUri())) {
+                continue;
+            }
+            ResponseDefinitionBuilder response = record.getStatus() == TraceRecord.NO_RESPONSE
+                    ? aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)
+                    : aResponse().withStatus(record.getStatus());
+            MappingBuilder mapping = request(record.getMethod(), urlEqualTo(record.getUri()));
+            wireMockServer.stubFor(mapping.atPriority(1).willReturn(response));
+        }
+    }
+
+    private static ResponseDefinitionBuilder json(String bodyFile) {
+        return aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile(bodyFile);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static String summary(LoadTestResult result) {
+        return String.format("%-36s %8d req %6d err %9.1f/s  p50 %7d us  p99 %7d us  p99.9 %7d us"
+                        + "  (corrected p99 %7d us)",
+                result.getWorkload(), result.getRequests(), result.getErrors(), result.getThroughputPerSecond(),
+                result.getServiceP50Micros(), result.getServiceP99Micros(), result.getServiceP999Micros(),
+                result.getCorrectedP99Micros());
+    }
+
+    private static final class Measurement {
+
+        private final String workload;
+        private final LatencyHistogram serviceLatency = new LatencyHistogram();
+        private final LatencyHistogram correctedLatency = new LatencyHistogram();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Measurement(String workload) {
+            this.workload = workload;
+        }
+
+        /**
+         * Calls whose outcome differs from the trace are left out of the latency histograms.
+         */
+        void record(long intendedNanos, long sentNanos, long completedNanos, boolean asRecorded) {
+            requests.incrementAndGet();
+            if (!asRecorded) {
+                errors.incrementAndGet();
+                return;
+            }
+            serviceLatency.record(completedNanos - sentNanos);
+            correctedLatency.record(completedNanos - intendedNanos);
+        }
+
+        LoadTestResult toResult(long elapsedNanos, ResourceSampler sampler) {
+            long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), 1);
+            LoadTestResult result = new LoadTestResult();
+            result.setWorkload(workload);
+            result.setMode("REPLAY");
+            result.setRatePerSecond((int) (requests.get() * 1000 / elapsedMillis));
+            result.setUpstreamDelay(UpstreamDelay.fixed(0).toString());
+            result.setRequests(requests.get());
+            result.setErrors(errors.get());
+            result.setThroughputPerSecond((requests.get() - errors.get()) * 1000.0 / elapsedMillis);
+            result.setServiceLatency(serviceLatency.snapshot());
+            result.setCorrectedLatency(correctedLatency.snapshot());
+            result.setPeakThreads(sampler.getPeakThreads());
+            result.setPeakHeapBytes(sampler.getPeakHeapBytes());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.wiremock.loadtest;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import lombok.Value;
+
+/**
+ * Latency the WireMock stubs add to every response.
+ */
+@Value
+public class UpstreamDelay {
+
+    int minMillis;
+    int maxMillis;
+
+    public static UpstreamDelay fixed(int millis) {
+        return new UpstreamDelay(millis, millis);
+    }
+
+    public static UpstreamDelay uniform(int minMillis, int maxMillis) {
+        return new UpstreamDelay(minMillis, maxMillis);
+    }
+
+    ResponseDefinitionBuilder applyTo(ResponseDefinitionBuilder response) {
+        if (minMillis == maxMillis) {
+            return minMillis == 0 ? response : response.withFixedDelay(minMillis);
+        }
+        return response.withUniformRandomDelay(minMillis, maxMillis);
+    }
+
+    @Override
+    public String toString() {
+        return minMillis == maxMillis ? minMillis + "ms" : minMillis + "-" + maxMillis + "ms";
+    }
+}
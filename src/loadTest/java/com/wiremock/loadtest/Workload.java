@@ -0,0 +1,44 @@
+package com.wiremock.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * One load-test run. A {@link Mode#CLOSED} workload has {@code callers} threads calling the blocking client
+ * back to back, or every {@code pacing} when it is set. A {@link Mode#OPEN} workload starts
+ * {@code ratePerSecond} calls per second on the reactive client, whether or not earlier calls have completed.
+ */
+@Value
+@Builder
+public class Workload {
+
+    public enum Mode {
+        CLOSED, OPEN
+    }
+
+    String name;
+    Mode mode;
+    @Builder.Default
+    int callers = 1;
+    @Builder.Default
+    int ratePerSecond = 100;
+    /**
+     * Intended interval between two calls of one closed-loop caller; {@link Duration#ZERO} means no pause.
+     */
+    @Builder.Default
+    Duration pacing = Duration.ZERO;
+    @Builder.Default
+    UpstreamDelay upstreamDelay = UpstreamDelay.fixed(0);
+    @Builder.Default
+    Duration warmup = Duration.ofSeconds(5);
+    @Builder.Default
+    Duration duration = Duration.ofSeconds(20);
+    /**
+     * Open-loop calls beyond this many in flight are not sent and count as errors, so that an overloaded
+     * client cannot exhaust the heap of the harness.
+     */
+    @Builder.Default
+    int maxOutstanding = 20_000;
+}
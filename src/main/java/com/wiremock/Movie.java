@@ -23,4 +23,12 @@ public class Movie {
         this.cast = cast;
         this.year = year;
     }
+
+    /**
+     * @return a movie with the same fields, for handing out values that are kept and shared
+     */
+    public static Movie copyOf(Movie movie) {
+        return new Movie(movie.getMovie_id(), movie.getCast(), movie.getName(), movie.getRelease_date(),
+                movie.getYear());
+    }
 }
\ No newline at end of file
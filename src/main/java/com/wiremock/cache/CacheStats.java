@@ -0,0 +1,18 @@
+package com.wiremock.cache;
+
+import lombok.Value;
+
+@Value
+public class CacheStats {
+
+    long hits;
+    long misses;
+    long evictions;
+    long expirations;
+    long invalidations;
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,133 @@
+package com.wiremock.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded, least-recently-used store of decoded GET responses together with their {@code ETag} and
+ * {@code Last-Modified} validators, keyed by URI. Requests for a stored URI are sent as conditional requests,
+ * and a {@code 304 Not Modified} answer is served from the stored value without reading or decoding a body.
+ * Responses without validators are not stored.
+ */
+public class ConditionalResponseCache {
+
+    private final int maximumSize;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+
+    public ConditionalResponseCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ConditionalResponseCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Performs one conditional exchange for {@code uri}.
+     *
+     * @param exchange sends the request after applying the given validator headers to it
+     * @param decode   turns a response other than a {@code 304} for a stored URI into its value, or an error
+     * @param copy     makes an independent copy of a value; the cache keeps one and hands out a new one per
+     *                 {@code 304}, so callers never share a value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> exchange(String uri, Function<Consumer<HttpHeaders>, Mono<ClientResponse>> exchange,
+                                Function<ClientResponse, Mono<T>> decode, UnaryOperator<T> copy) {
+        return Mono.defer(() -> {
+            Entry cached;
+            synchronized (entries) {
+                cached = entries.get(uri);
+            }
+            return exchange.apply(headers -> {
+                if (cached != null) {
+                    cached.addValidators(headers);
+                }
+            }).flatMap(response -> {
+                if (cached != null && response.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                    notModified.increment();
+                    return response.bodyToMono(Void.class).then(Mono.fromSupplier(() -> copy.apply((T) cached.value)));
+                }
+                return decode.apply(response)
+                        .doOnNext(value -> store(uri, response.headers().asHttpHeaders(), value, copy));
+            });
+        });
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return how many responses were served from a stored value after a {@code 304}
+     */
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * @return how many responses carried a body that was decoded and stored
+     */
+    public long getModifiedCount() {
+        return modified.sum();
+    }
+
+    private <T> void store(String uri, HttpHeaders headers, T value, UnaryOperator<T> copy) {
+        String eTag = headers.getFirst(HttpHeaders.ETAG);
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        synchronized (entries) {
+            if (eTag == null && lastModified == null) {
+                entries.remove(uri);
+                return;
+            }
+            entries.put(uri, new Entry(eTag, lastModified, copy.apply(value)));
+        }
+        modified.increment();
+    }
+
+    private static final class Entry {
+
+        private final String eTag;
+        private final String lastModified;
+        private final Object value;
+
+        Entry(String eTag, String lastModified, Object value) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+
+        void addValidators(HttpHeaders headers) {
+            if (eTag != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, eTag);
+            }
+            if (lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.wiremock.cache;
+
+import com.wiremock.Movie;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieNotFoundException;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Size-bounded, least-recently-used cache of movies by id. Entries expire after a fixed time to live and
+ * "not found" answers are remembered for their own, usually shorter, time to live.
+ */
+public class MovieCache {
+
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final long notFoundTtlNanos;
+    private final Map<Integer, Entry> entries;
+    private final Map<Integer, Object> loads = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public MovieCache(int maximumSize, Duration ttl, Duration notFoundTtl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.notFoundTtlNanos = notFoundTtl.toNanos();
+        this.entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > MovieCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Answers from the cache when a live entry exists, otherwise subscribes to {@code loader} and stores its
+     * outcome. A load that races with an invalidation of the same movie is handed to its caller but not stored.
+     * The cache keeps its own copy of each movie and hands out a new copy on every hit.
+     */
+    public Mono<Movie> get(int movieId, IntFunction<Mono<Movie>> loader) {
+        return Mono.defer(() -> {
+            Entry entry = lookup(movieId);
+            if (entry != null) {
+                hits.increment();
+                return entry.movie != null
+                        ? Mono.just(Movie.copyOf(entry.movie))
+                        : Mono.error(new MovieNotFoundException(HttpStatus.NOT_FOUND.getReasonPhrase()));
+            }
+            misses.increment();
+            Object load = startLoad(movieId);
+            return loader.apply(movieId)
+                    .doOnNext(movie -> store(movieId, new Entry(Movie.copyOf(movie), System.nanoTime() + ttlNanos), load))
+                    .doOnError(ex -> {
+                        if (notFoundTtlNanos > 0 && isNotFound(ex)) {
+                            store(movieId, new Entry(null, System.nanoTime() + notFoundTtlNanos), load);
+                        }
+                    })
+                    .doFinally(signal -> endLoad(movieId, load));
+        });
+    }
+
+    /**
+     * Drops the entry of {@code movieId}; loads of that movie already under way are not stored.
+     */
+    public void invalidate(int movieId) {
+        synchronized (entries) {
+            entries.remove(movieId);
+            loads.remove(movieId);
+        }
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            loads.clear();
+        }
+        invalidations.increment();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    private Entry lookup(int movieId) {
+        synchronized (entries) {
+            Entry entry = entries.get(movieId);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(movieId);
+                expirations.increment();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * @return the token of the loads of {@code movieId} under way; an invalidation of the movie withdraws it, so
+     * that those loads are not stored
+     */
+    private Object startLoad(int movieId) {
+        synchronized (entries) {
+            return loads.computeIfAbsent(movieId, key -> new Object());
+        }
+    }
+
+    private void store(int movieId, Entry entry, Object load) {
+        synchronized (entries) {
+            if (loads.get(movieId) == load) {
+                entries.put(movieId, entry);
+            }
+        }
+    }
+
+    private void endLoad(int movieId, Object load) {
+        synchronized (entries) {
+            loads.remove(movieId, load);
+        }
+    }
+
+    private static boolean isNotFound(Throwable ex) {
+        return ex instanceof MovieErrorResponse
+                && ((MovieErrorResponse) ex).getRawStatusCode() == HttpStatus.NOT_FOUND.value();
+    }
+
+    /**
+     * A {@code null} movie remembers a 404; hits on it fail with a new {@link MovieNotFoundException} each time,
+     * since callers such as {@code block()} add suppressed exceptions to what they throw.
+     */
+    private static final class Entry {
+        final Movie movie;
+        final long expiresAt;
+
+        Entry(Movie movie, long expiresAt) {
+            this.movie = movie;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
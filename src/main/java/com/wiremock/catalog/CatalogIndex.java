@@ -0,0 +1,150 @@
+package com.wiremock.catalog;
+
+import com.wiremock.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory indexes over one copy of the catalog: a primary-key index by {@code movie_id}, postings
+ * by {@code year} and a trigram index over the lower-cased names for case-insensitive substring search.
+ * Results are defensive copies in catalog order.
+ */
+final class CatalogIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final Movie[] movies;
+    private final String[] lowerCaseNames;
+    private final IntIndex positionsById;
+    private final IntIndex groupsByYear;
+    private final int[][] yearGroups;
+    private final Map<Long, int[]> positionsByTrigram;
+
+    CatalogIndex(List<Movie> catalog) {
+        movies = catalog.toArray(new Movie[0]);
+        lowerCaseNames = new String[movies.length];
+        positionsById = new IntIndex(movies.length);
+        groupsByYear = new IntIndex(64);
+
+        List<Postings> years = new ArrayList<>();
+        Map<Long, Postings> trigrams = new HashMap<>();
+        for (int position = 0; position < movies.length; position++) {
+            Movie movie = movies[position];
+            positionsById.put(movie.getMovie_id(), position);
+
+            int group = groupsByYear.get(movie.getYear());
+            if (group < 0) {
+                group = years.size();
+                groupsByYear.put(movie.getYear(), group);
+                years.add(new Postings());
+            }
+            years.get(group).add(position);
+
+            if (movie.getName() != null) {
+                String name = movie.getName().toLowerCase(Locale.ROOT);
+                lowerCaseNames[position] = name;
+                for (int i = 0; i + 3 <= name.length(); i++) {
+                    trigrams.computeIfAbsent(trigram(name, i), key -> new Postings()).add(position);
+                }
+            }
+        }
+
+        yearGroups = new int[years.size()][];
+        for (int group = 0; group < yearGroups.length; group++) {
+            yearGroups[group] = years.get(group).toArray();
+        }
+        positionsByTrigram = new HashMap<>(trigrams.size() * 4 / 3 + 1);
+        trigrams.forEach((trigram, postings) -> positionsByTrigram.put(trigram, postings.toArray()));
+    }
+
+    int size() {
+        return movies.length;
+    }
+
+    Movie byId(int movieId) {
+        int position = positionsById.get(movieId);
+        return position < 0 ? null : Movie.copyOf(movies[position]);
+    }
+
+    List<Movie> byYear(int year) {
+        int group = groupsByYear.get(year);
+        return group < 0 ? Collections.emptyList() : copiesOf(yearGroups[group], yearGroups[group].length);
+    }
+
+    List<Movie> byName(String name) {
+        String query = name.toLowerCase(Locale.ROOT);
+        int[] candidates = query.length() < 3 ? null : shortestPostings(query);
+        int[] matches = new int[candidates == null ? movies.length : candidates.length];
+        int count = 0;
+        if (candidates == null) {
+            for (int position = 0; position < movies.length; position++) {
+                if (lowerCaseNames[position] != null && lowerCaseNames[position].contains(query)) {
+                    matches[count++] = position;
+                }
+            }
+        } else {
+            for (int position : candidates) {
+                if (lowerCaseNames[position].contains(query)) {
+                    matches[count++] = position;
+                }
+            }
+        }
+        return copiesOf(matches, count);
+    }
+
+    /**
+     * Every movie whose name contains {@code query} appears in the postings of each trigram of the query, so the
+     * shortest of them is a complete candidate list.
+     */
+    private int[] shortestPostings(String query) {
+        int[] shortest = null;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            int[] postings = positionsByTrigram.getOrDefault(trigram(query, i), NO_POSITIONS);
+            if (shortest == null || postings.length < shortest.length) {
+                shortest = postings;
+            }
+        }
+        return shortest;
+    }
+
+    private List<Movie> copiesOf(int[] positions, int count) {
+        List<Movie> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(Movie.copyOf(movies[positions[i]]));
+        }
+        return result;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Growable list of ascending catalog positions; a movie is only added once per key.
+     */
+    private static final class Postings {
+
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
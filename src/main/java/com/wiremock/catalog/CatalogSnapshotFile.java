@@ -0,0 +1,188 @@
+package com.wiremock.catalog;
+
+import com.wiremock.Movie;
+import lombok.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of the catalog on local disk, read back through a memory mapping. The file starts with a magic
+ * number, the format version and a CRC32 over everything after it: the time it was written, the number of movies
+ * and the movies themselves as id, year, release date in epoch days and length-prefixed UTF-8 cast and name.
+ * <p>
+ * Writes go to a temporary file that is moved over the snapshot, so a crash never leaves half a snapshot behind.
+ * A snapshot of another version, with a bad checksum or older than {@code maxAge} is refused by {@link #read()}.
+ */
+public final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x4D564353;
+    static final int VERSION = 1;
+
+    private static final int CHECKSUM_OFFSET = 8;
+    private static final int HEADER_SIZE = 12;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int NO_STRING = -1;
+
+    private final Path path;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    public CatalogSnapshotFile(Path path, Duration maxAge) {
+        this(path, maxAge, Clock.systemUTC());
+    }
+
+    CatalogSnapshotFile(Path path, Duration maxAge, Clock clock) {
+        this.path = path;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void write(List<Movie> movies) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + movies.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(0);
+        out.writeLong(clock.millis());
+        out.writeInt(movies.size());
+        for (Movie movie : movies) {
+            out.writeInt(movie.getMovie_id());
+            out.writeInt(movie.getYear());
+            out.writeLong(movie.getRelease_date() == null ? NO_DATE : movie.getRelease_date().toEpochDay());
+            writeString(out, movie.getCast());
+            writeString(out, movie.getName());
+        }
+        out.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.limit() - HEADER_SIZE);
+        buffer.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the snapshot, or {@code null} when there is none
+     * @throws IOException when the snapshot cannot be read, is corrupt, of another version or too old
+     */
+    public Contents read() throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        try {
+            return decode(buffer);
+        } catch (RuntimeException ex) {
+            throw new IOException("Corrupt catalog snapshot " + path, ex);
+        }
+    }
+
+    /**
+     * Removes the snapshot, for instance after {@link #read()} refused it.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private Contents decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Catalog snapshot " + path + " has version " + version + ", expected " + VERSION);
+        }
+        int checksum = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch in catalog snapshot " + path);
+        }
+
+        Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+        if (Duration.between(writtenAt, clock.instant()).compareTo(maxAge) > 0) {
+            throw new IOException("Catalog snapshot " + path + " written at " + writtenAt + " is older than " + maxAge);
+        }
+        int size = buffer.getInt();
+        List<Movie> movies = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int movieId = buffer.getInt();
+            int year = buffer.getInt();
+            long epochDay = buffer.getLong();
+            String cast = readString(buffer);
+            String name = readString(buffer);
+            movies.add(new Movie(movieId, cast, name, epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay), year));
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("Trailing bytes in catalog snapshot " + path);
+        }
+        return new Contents(movies, writtenAt);
+    }
+
+    /**
+     * @return how long ago {@code contents} were written, never negative
+     */
+    Duration ageOf(Contents contents) {
+        Duration age = Duration.between(contents.getWrittenAt(), clock.instant());
+        return age.isNegative() ? Duration.ZERO : age;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NO_STRING);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NO_STRING) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Value
+    public static class Contents {
+        List<Movie> movies;
+        Instant writtenAt;
+    }
+}
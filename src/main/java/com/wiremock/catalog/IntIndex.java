@@ -0,0 +1,80 @@
+package com.wiremock.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from int keys to non-negative int values, without boxing. Filled once while a
+ * {@link CatalogIndex} is built and only read afterwards.
+ */
+final class IntIndex {
+
+    private static final int ABSENT = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expectedSize keys to make room for up front; the index grows past it when needed
+     */
+    IntIndex(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1);
+    }
+
+    void put(int key, int value) {
+        int slot = slotOf(key);
+        if (values[slot] == ABSENT) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = slotOf(key);
+            }
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * @return the value of {@code key}, or -1 when it is absent
+     */
+    int get(int key) {
+        return values[slotOf(key)];
+    }
+
+    /**
+     * Doubles the table, which keeps it at most half full so that probing always reaches a free slot.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != ABSENT) {
+                int target = slotOf(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(values, ABSENT);
+    }
+
+    private int slotOf(int key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
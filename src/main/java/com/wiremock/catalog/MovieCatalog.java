@@ -0,0 +1,225 @@
+package com.wiremock.catalog;
+
+import com.wiremock.Movie;
+import com.wiremock.exception.MovieNotFoundException;
+import com.wiremock.service.ReactiveMoviesRestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process replica of the movie catalog. It is loaded with {@link ReactiveMoviesRestClient#retrieveAllMovies()},
+ * refreshed in the background, and answers lookups by id, year and name from its indexes without a round trip.
+ * <p>
+ * While the replica has not been loaded yet, or its last successful refresh is older than {@code maxStaleness},
+ * every lookup is passed on to the client instead. Local lookups that find nothing fail with a
+ * {@link MovieNotFoundException}, as the movie service's 404 does. Writes made through the client show up with the
+ * next refresh.
+ * <p>
+ * With a {@link CatalogSnapshotFile}, every successful refresh is persisted and {@link #start()} first loads the
+ * last persisted copy, so an instance answers locally right after a restart while the catalog downloads.
+ */
+public class MovieCatalog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieCatalog.class);
+
+    private final ReactiveMoviesRestClient client;
+    private final Duration refreshInterval;
+    private final Duration maxStaleness;
+    private final CatalogSnapshotFile snapshotFile;
+    private final Disposable.Swap refresher = Disposables.swap();
+    private final LongAdder localQueries = new LongAdder();
+    private final LongAdder remoteQueries = new LongAdder();
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param maxStaleness how long the replica keeps answering after its last successful refresh; should be a
+     *                     few refresh intervals, so that a single failed refresh does not send traffic upstream
+     */
+    public MovieCatalog(ReactiveMoviesRestClient client, Duration refreshInterval, Duration maxStaleness) {
+        this(client, refreshInterval, maxStaleness, null);
+    }
+
+    /**
+     * @param snapshotFile where the catalog is persisted between restarts; {@code null} keeps it in memory only
+     */
+    public MovieCatalog(ReactiveMoviesRestClient client, Duration refreshInterval, Duration maxStaleness,
+                        CatalogSnapshotFile snapshotFile) {
+        this.client = client;
+        this.refreshInterval = refreshInterval;
+        this.maxStaleness = maxStaleness;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Loads the persisted snapshot, if any, on the calling thread, then loads the catalog now and every
+     * {@code refreshInterval} after that in the background, until {@link #close()}. Refreshes never overlap,
+     * and a failed refresh keeps the previous copy.
+     */
+    public void start() {
+        if (snapshotFile != null && snapshot == null) {
+            loadSnapshotFile();
+        }
+        refresher.update(Flux.interval(Duration.ZERO, refreshInterval, Schedulers.parallel())
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh().onErrorResume(ex -> {
+                    log.warn("Refreshing the movie catalog failed, keeping the previous copy: {}", ex.toString());
+                    return Mono.empty();
+                }))
+                .subscribe());
+    }
+
+    /**
+     * Downloads the whole catalog and swaps it in once it is indexed, then persists it to the snapshot file.
+     * Failing to persist it is logged and does not fail the refresh.
+     */
+    public Mono<Void> refresh() {
+        Mono<List<Movie>> refreshed = client.retrieveAllMovies()
+                .collectList()
+                .doOnNext(movies -> {
+                    snapshot = new Snapshot(new CatalogIndex(movies), System.nanoTime());
+                    log.debug("Loaded {} movies into the catalog", movies.size());
+                });
+        if (snapshotFile == null) {
+            return refreshed.then();
+        }
+        return refreshed
+                .publishOn(Schedulers.elastic())
+                .doOnNext(this::writeSnapshotFile)
+                .then();
+    }
+
+    public Mono<Movie> retrieveMovieById(int movieId) {
+        CatalogIndex index = freshIndex();
+        if (index == null) {
+            return client.retrieveMovieById(movieId);
+        }
+        Movie movie = index.byId(movieId);
+        return movie != null ? Mono.just(movie) : notFound();
+    }
+
+    public Flux<Movie> retrieveMovieByYear(int year) {
+        CatalogIndex index = freshIndex();
+        if (index == null) {
+            return client.retrieveMovieByYear(year);
+        }
+        return found(index.byYear(year));
+    }
+
+    /**
+     * Finds the movies whose name contains {@code name}, ignoring case.
+     */
+    public Flux<Movie> retrieveMovieByName(String name) {
+        CatalogIndex index = freshIndex();
+        if (index == null) {
+            return client.retrieveMovieByName(name);
+        }
+        return found(index.byName(name));
+    }
+
+    /**
+     * @return whether lookups are currently answered locally
+     */
+    public boolean isFresh() {
+        return isFresh(snapshot);
+    }
+
+    /**
+     * @return the number of movies in the local copy, 0 before the first load
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.index.size();
+    }
+
+    public long getLocalQueries() {
+        return localQueries.sum();
+    }
+
+    public long getRemoteQueries() {
+        return remoteQueries.sum();
+    }
+
+    /**
+     * Stops the background refresh; the client is left open.
+     */
+    @Override
+    public void close() {
+        refresher.dispose();
+    }
+
+    private void loadSnapshotFile() {
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshotFile.Contents contents = snapshotFile.read();
+            if (contents == null) {
+                return;
+            }
+            // the copy is as fresh as when it was written, not when it was read back
+            snapshot = new Snapshot(new CatalogIndex(contents.getMovies()),
+                    System.nanoTime() - snapshotFile.ageOf(contents).toNanos());
+            log.info("Loaded {} movies written at {} from {} in {} ms", contents.getMovies().size(),
+                    contents.getWrittenAt(), snapshotFile.getPath(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException ex) {
+            log.warn("Discarding the catalog snapshot: {}", ex.getMessage());
+            try {
+                snapshotFile.delete();
+            } catch (IOException deleteEx) {
+                log.warn("Could not delete the catalog snapshot: {}", deleteEx.toString());
+            }
+        }
+    }
+
+    private void writeSnapshotFile(List<Movie> movies) {
+        try {
+            snapshotFile.write(movies);
+        } catch (IOException ex) {
+            log.warn("Could not persist the catalog snapshot to {}: {}", snapshotFile.getPath(), ex.toString());
+        }
+    }
+
+    private static <T> Flux<T> found(List<T> movies) {
+        return movies.isEmpty() ? Flux.from(notFound()) : Flux.fromIterable(movies);
+    }
+
+    private static <T> Mono<T> notFound() {
+        return Mono.error(new MovieNotFoundException(HttpStatus.NOT_FOUND.getReasonPhrase()));
+    }
+
+    private CatalogIndex freshIndex() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            localQueries.increment();
+            return current.index;
+        }
+        remoteQueries.increment();
+        return null;
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && System.nanoTime() - current.loadedAtNanos <= maxStaleness.toNanos();
+    }
+
+    private static final class Snapshot {
+
+        private final CatalogIndex index;
+        private final long loadedAtNanos;
+
+        Snapshot(CatalogIndex index, long loadedAtNanos) {
+            this.index = index;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
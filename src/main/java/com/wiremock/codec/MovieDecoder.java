@@ -0,0 +1,353 @@
+package com.wiremock.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.wiremock.Movie;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes {@link Movie}s straight from Jackson's non-blocking token stream, without databind. It reads a JSON
+ * array of movies, a single movie, or a sequence of movies as sent with {@code application/stream+json} and
+ * {@code application/x-ndjson}, and accepts the same input as the default Jackson decoder: unknown fields are
+ * skipped and numbers may be quoted.
+ * <p>
+ * Allocation per movie is kept to the movie and its name: release dates come from a small cache of
+ * {@link LocalDate}s, cast strings are deduplicated, and fields are assigned directly.
+ */
+public class MovieDecoder extends AbstractDecoder<Movie> {
+
+    private static final DateTimeFormatter RELEASE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final DateCache releaseDates = new DateCache(1024);
+    private final StringCache casts = new StringCache(1024);
+
+    public MovieDecoder() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_STREAM_JSON,
+                MediaType.parseMediaType("application/x-ndjson"), new MediaType("application", "*+json"));
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return Movie.class == elementType.resolve() && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<Movie> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                              Map<String, Object> hints) {
+        return Flux.defer(() -> {
+            MovieReader reader = new MovieReader();
+            return Flux.from(input)
+                    .concatMapIterable(reader::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(reader.endOfInput())))
+                    .doFinally(signal -> reader.close());
+        });
+    }
+
+    @Override
+    public Mono<Movie> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                                    Map<String, Object> hints) {
+        return decode(input, elementType, mimeType, hints).singleOrEmpty();
+    }
+
+    private enum Field {
+        MOVIE_ID, CAST, NAME, RELEASE_DATE, YEAR, UNKNOWN
+    }
+
+    /**
+     * State of one decoded stream. Tokens arrive in arbitrary chunks, so the position inside the current movie
+     * is kept between calls of {@link #feed(DataBuffer)}.
+     */
+    private final class MovieReader {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private byte[] scratch = new byte[0];
+        private boolean inArray;
+        private Movie current;
+        private int nested;
+        private Field field = Field.UNKNOWN;
+
+        MovieReader() {
+            try {
+                parser = jsonFactory.createNonBlockingByteArrayParser();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<Movie> feed(DataBuffer buffer) {
+            try {
+                ByteBuffer bytes = buffer.asByteBuffer();
+                if (bytes.hasArray()) {
+                    int start = bytes.arrayOffset() + bytes.position();
+                    feeder.feedInput(bytes.array(), start, start + bytes.remaining());
+                } else {
+                    int length = bytes.remaining();
+                    if (scratch.length < length) {
+                        scratch = new byte[length];
+                    }
+                    bytes.get(scratch, 0, length);
+                    feeder.feedInput(scratch, 0, length);
+                }
+                return drain();
+            } catch (IOException | DateTimeException | NumberFormatException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getMessage(), ex);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<Movie> endOfInput() {
+            try {
+                feeder.endOfInput();
+                List<Movie> movies = drain();
+                if (current != null || nested > 0) {
+                    throw new DecodingException("JSON decoding error: unexpected end of input");
+                }
+                return movies;
+            } catch (IOException | DateTimeException | NumberFormatException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getMessage(), ex);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing was buffered that could be lost
+            }
+        }
+
+        /**
+         * Consumes every token of the input fed so far; the parser must not be fed again before that.
+         */
+        private List<Movie> drain() throws IOException {
+            List<Movie> movies = Collections.emptyList();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                Movie movie = accept(token);
+                if (movie != null) {
+                    if (movies.isEmpty()) {
+                        movies = new ArrayList<>();
+                    }
+                    movies.add(movie);
+                }
+            }
+            return movies;
+        }
+
+        private Movie accept(JsonToken token) throws IOException {
+            switch (token) {
+                case START_OBJECT:
+                    if (current == null) {
+                        current = new Movie();
+                        field = Field.UNKNOWN;
+                    } else {
+                        nested++;
+                    }
+                    return null;
+                case START_ARRAY:
+                    if (current != null) {
+                        nested++;
+                    } else if (!inArray) {
+                        inArray = true;
+                    } else {
+                        throw new DecodingException("JSON decoding error: expected a movie but found an array");
+                    }
+                    return null;
+                case END_OBJECT:
+                    if (nested > 0) {
+                        nested--;
+                        return null;
+                    }
+                    Movie movie = current;
+                    current = null;
+                    return movie;
+                case END_ARRAY:
+                    if (nested > 0) {
+                        nested--;
+                    } else {
+                        inArray = false;
+                    }
+                    return null;
+                case FIELD_NAME:
+                    if (nested == 0) {
+                        field = fieldOf(parser.getCurrentName());
+                    }
+                    return null;
+                default:
+                    if (current != null && nested == 0) {
+                        assign(token);
+                    }
+                    return null;
+            }
+        }
+
+        private void assign(JsonToken token) throws IOException {
+            switch (field) {
+                case MOVIE_ID:
+                    current.movie_id = intValue(token);
+                    break;
+                case YEAR:
+                    current.year = intValue(token);
+                    break;
+                case NAME:
+                    current.name = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case CAST:
+                    current.cast = token == JsonToken.VALUE_NULL ? null
+                            : casts.get(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    break;
+                case RELEASE_DATE:
+                    current.release_date = token == JsonToken.VALUE_NULL ? null
+                            : releaseDates.get(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private int intValue(JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_NUMBER_INT:
+                    return parser.getIntValue();
+                case VALUE_NUMBER_FLOAT:
+                    return (int) parser.getDoubleValue();
+                case VALUE_STRING:
+                    String text = parser.getText().trim();
+                    return text.isEmpty() ? 0 : Integer.parseInt(text);
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    private static Field fieldOf(String name) {
+        switch (name) {
+            case "movie_id":
+                return Field.MOVIE_ID;
+            case "cast":
+                return Field.CAST;
+            case "name":
+                return Field.NAME;
+            case "release_date":
+                return Field.RELEASE_DATE;
+            case "year":
+                return Field.YEAR;
+            default:
+                return Field.UNKNOWN;
+        }
+    }
+
+    /**
+     * Direct-mapped cache of parsed {@code yyyy-MM-dd} dates. Slots are overwritten on collision; as
+     * {@link LocalDate} is immutable, racing readers and writers only cost a redundant parse.
+     */
+    static final class DateCache {
+
+        private final LocalDate[] slots;
+
+        DateCache(int size) {
+            slots = new LocalDate[Integer.highestOneBit(size)];
+        }
+
+        LocalDate get(char[] text, int offset, int length) {
+            if (length == 0) {
+                return null;
+            }
+            if (length != 10 || text[offset + 4] != '-' || text[offset + 7] != '-') {
+                return LocalDate.parse(new String(text, offset, length), RELEASE_DATE_FORMAT);
+            }
+            int year = digits(text, offset, 4);
+            int month = digits(text, offset + 5, 2);
+            int day = digits(text, offset + 8, 2);
+            if (year < 0 || month < 0 || day < 0) {
+                return LocalDate.parse(new String(text, offset, length), RELEASE_DATE_FORMAT);
+            }
+            int slot = ((year * 12 + month) * 31 + day) & (slots.length - 1);
+            LocalDate cached = slots[slot];
+            if (cached != null && cached.getYear() == year && cached.getMonthValue() == month
+                    && cached.getDayOfMonth() == day) {
+                return cached;
+            }
+            LocalDate date = LocalDate.of(year, month, day);
+            slots[slot] = date;
+            return date;
+        }
+
+        private static int digits(char[] text, int offset, int count) {
+            int value = 0;
+            for (int i = offset; i < offset + count; i++) {
+                int digit = text[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Direct-mapped cache that hands out one {@link String} instance per distinct text, so that a catalog
+     * repeating the same cast keeps a single copy of it.
+     */
+    static final class StringCache {
+
+        private final String[] slots;
+
+        StringCache(int size) {
+            slots = new String[Integer.highestOneBit(size)];
+        }
+
+        String get(char[] text, int offset, int length) {
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + text[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (slots.length - 1);
+            String cached = slots[slot];
+            if (cached != null && matches(cached, text, offset, length)) {
+                return cached;
+            }
+            String value = new String(text, offset, length);
+            slots[slot] = value;
+            return value;
+        }
+
+        private static boolean matches(String cached, char[] text, int offset, int length) {
+            if (cached.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (cached.charAt(i) != text[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
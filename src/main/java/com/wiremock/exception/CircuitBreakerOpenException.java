@@ -0,0 +1,18 @@
+package com.wiremock.exception;
+
+/**
+ * Raised without contacting the movie service because the circuit breaker of the endpoint is open.
+ */
+public class CircuitBreakerOpenException extends MovieRequestRejectedException {
+
+    private final String endpoint;
+
+    public CircuitBreakerOpenException(String endpoint) {
+        super("Circuit breaker for " + endpoint + " is open");
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,19 @@
+package com.wiremock.exception;
+
+/**
+ * Raised without contacting the movie service because the concurrency limit of the call's endpoint group was
+ * reached and its wait queue was full or the call waited too long for a slot.
+ */
+public class ConcurrencyLimitExceededException extends MovieRequestRejectedException {
+
+    private final String group;
+
+    public ConcurrencyLimitExceededException(String group, int limit) {
+        super("Concurrency limit of " + limit + " for " + group + " exceeded");
+        this.group = group;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+}
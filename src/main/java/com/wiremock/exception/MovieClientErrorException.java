@@ -0,0 +1,25 @@
+package com.wiremock.exception;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * The movie service rejected the request with a {@code 4xx} status other than {@code 404}.
+ */
+public class MovieClientErrorException extends MovieErrorResponse {
+
+    public MovieClientErrorException(String statusText, WebClientResponseException ex, boolean writableStackTrace) {
+        super(statusText, ex, writableStackTrace);
+    }
+
+    /**
+     * An answer known from its status alone, without the response body as a cause.
+     */
+    public MovieClientErrorException(String statusText, int rawStatusCode, boolean writableStackTrace) {
+        super(statusText, rawStatusCode, writableStackTrace);
+    }
+
+    @Override
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.CLIENT_ERROR;
+    }
+}
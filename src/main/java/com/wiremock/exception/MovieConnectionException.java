@@ -0,0 +1,16 @@
+package com.wiremock.exception;
+
+/**
+ * The connection to the movie service could not be opened or was lost before a response arrived.
+ */
+public class MovieConnectionException extends MovieErrorResponse {
+
+    public MovieConnectionException(Throwable ex, boolean writableStackTrace) {
+        super(ex.toString(), ex, writableStackTrace);
+    }
+
+    @Override
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.CONNECTION;
+    }
+}
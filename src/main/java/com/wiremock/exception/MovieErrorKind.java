@@ -0,0 +1,8 @@
+package com.wiremock.exception;
+
+/**
+ * Category of a {@link MovieErrorResponse}, used to count errors without inspecting their causes.
+ */
+public enum MovieErrorKind {
+    NOT_FOUND, CLIENT_ERROR, SERVER_ERROR, TIMEOUT, CONNECTION, REJECTED, OTHER
+}
@@ -4,11 +4,61 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 
 public class MovieErrorResponse extends RuntimeException {
 
+    private final int rawStatusCode;
+
     public MovieErrorResponse(String statusText, WebClientResponseException ex) {
         super(statusText, ex);
+        this.rawStatusCode = 0;
     }
 
-    public MovieErrorResponse(Exception ex) {
+    public MovieErrorResponse(Throwable ex) {
         super(ex);
+        this.rawStatusCode = 0;
+    }
+
+    /**
+     * For errors raised by the client itself that are cheap to create because they carry no stack trace.
+     */
+    protected MovieErrorResponse(String message) {
+        super(message, null, false, false);
+        this.rawStatusCode = 0;
+    }
+
+    /**
+     * For answers of the movie service that are known from their status alone; carries neither a stack trace nor
+     * a cause.
+     */
+    protected MovieErrorResponse(String message, int rawStatusCode) {
+        this(message, rawStatusCode, false);
+    }
+
+    protected MovieErrorResponse(String message, int rawStatusCode, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+        this.rawStatusCode = rawStatusCode;
+    }
+
+    /**
+     * @param writableStackTrace {@code false} skips filling in the stack trace, which dominates the cost of
+     *                           creating an exception; the cause keeps its own
+     */
+    protected MovieErrorResponse(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, writableStackTrace, writableStackTrace);
+        this.rawStatusCode = 0;
+    }
+
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.OTHER;
+    }
+
+    /**
+     * @return the HTTP status the movie service answered with, or {@code 0} when no response was received
+     */
+    public int getRawStatusCode() {
+        if (rawStatusCode != 0) {
+            return rawStatusCode;
+        }
+        return getCause() instanceof WebClientResponseException
+                ? ((WebClientResponseException) getCause()).getRawStatusCode()
+                : 0;
     }
 }
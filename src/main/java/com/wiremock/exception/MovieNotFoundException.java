@@ -0,0 +1,27 @@
+package com.wiremock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * The movie service answered {@code 404 Not Found}.
+ */
+public class MovieNotFoundException extends MovieErrorResponse {
+
+    public MovieNotFoundException(String statusText, WebClientResponseException ex, boolean writableStackTrace) {
+        super(statusText, ex, writableStackTrace);
+    }
+
+    /**
+     * A 404 known from its status alone, such as a remembered one or one mapped before its body was read;
+     * cheap to create as it has neither a stack trace nor a cause.
+     */
+    public MovieNotFoundException(String statusText) {
+        super(statusText, HttpStatus.NOT_FOUND.value());
+    }
+
+    @Override
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.NOT_FOUND;
+    }
+}
@@ -0,0 +1,17 @@
+package com.wiremock.exception;
+
+/**
+ * Base of the errors the client raises on its own, without contacting the movie service, to protect it
+ * or itself. They carry no stack trace, so rejecting a call costs next to nothing.
+ */
+public abstract class MovieRequestRejectedException extends MovieErrorResponse {
+
+    protected MovieRequestRejectedException(String message) {
+        super(message);
+    }
+
+    @Override
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.REJECTED;
+    }
+}
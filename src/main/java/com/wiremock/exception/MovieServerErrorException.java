@@ -0,0 +1,25 @@
+package com.wiremock.exception;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * The movie service failed with a {@code 5xx} status.
+ */
+public class MovieServerErrorException extends MovieErrorResponse {
+
+    public MovieServerErrorException(String statusText, WebClientResponseException ex, boolean writableStackTrace) {
+        super(statusText, ex, writableStackTrace);
+    }
+
+    /**
+     * An answer known from its status alone, without the response body as a cause.
+     */
+    public MovieServerErrorException(String statusText, int rawStatusCode, boolean writableStackTrace) {
+        super(statusText, rawStatusCode, writableStackTrace);
+    }
+
+    @Override
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.SERVER_ERROR;
+    }
+}
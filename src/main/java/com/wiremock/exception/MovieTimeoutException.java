@@ -0,0 +1,17 @@
+package com.wiremock.exception;
+
+/**
+ * No response arrived in time: connecting, waiting for a pooled connection, reading or writing
+ * timed out.
+ */
+public class MovieTimeoutException extends MovieErrorResponse {
+
+    public MovieTimeoutException(Throwable ex, boolean writableStackTrace) {
+        super(ex.toString(), ex, writableStackTrace);
+    }
+
+    @Override
+    public MovieErrorKind getKind() {
+        return MovieErrorKind.TIMEOUT;
+    }
+}
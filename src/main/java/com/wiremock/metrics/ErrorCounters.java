@@ -0,0 +1,55 @@
+package com.wiremock.metrics;
+
+import com.wiremock.exception.MovieErrorKind;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the errors of the movies client per operation and {@link MovieErrorKind}.
+ */
+public class ErrorCounters {
+
+    private static final MovieErrorKind[] KINDS = MovieErrorKind.values();
+
+    private final ConcurrentMap<String, LongAdder[]> counters = new ConcurrentHashMap<>();
+
+    public void increment(String operation, MovieErrorKind kind) {
+        counters.computeIfAbsent(operation, key -> newCounters())[kind.ordinal()].increment();
+    }
+
+    public long get(String operation, MovieErrorKind kind) {
+        LongAdder[] operationCounters = counters.get(operation);
+        return operationCounters == null ? 0 : operationCounters[kind.ordinal()].sum();
+    }
+
+    /**
+     * @return the non-zero counts by operation and kind
+     */
+    public Map<String, Map<MovieErrorKind, Long>> snapshot() {
+        Map<String, Map<MovieErrorKind, Long>> snapshot = new TreeMap<>();
+        counters.forEach((operation, operationCounters) -> {
+            Map<MovieErrorKind, Long> byKind = new EnumMap<>(MovieErrorKind.class);
+            for (MovieErrorKind kind : KINDS) {
+                long count = operationCounters[kind.ordinal()].sum();
+                if (count > 0) {
+                    byKind.put(kind, count);
+                }
+            }
+            snapshot.put(operation, byKind);
+        });
+        return snapshot;
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] operationCounters = new LongAdder[KINDS.length];
+        for (int i = 0; i < operationCounters.length; i++) {
+            operationCounters[i] = new LongAdder();
+        }
+        return operationCounters;
+    }
+}
@@ -0,0 +1,17 @@
+package com.wiremock.metrics;
+
+import lombok.Value;
+
+/**
+ * Point-in-time view of a {@link LatencyHistogram}; all values are in nanoseconds.
+ */
+@Value
+public class HistogramSnapshot {
+
+    long count;
+    long mean;
+    long max;
+    long p50;
+    long p99;
+    long p999;
+}
@@ -0,0 +1,149 @@
+package com.wiremock.metrics;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-operation latency histograms and throughput counters for the movies client, collected by an
+ * {@link ExchangeFilterFunction}. Requests are grouped by the {@link #OPERATION_ATTRIBUTE} request attribute,
+ * falling back to the HTTP method. Latency runs from the start of the exchange until the response body has been
+ * read, so it includes connection pool waits and body transfer; retried and hedged attempts are recorded as
+ * separate exchanges.
+ * <p>
+ * Connection acquire time is only available when the metrics are also installed on the underlying
+ * {@link HttpClient} through {@link #instrument(HttpClient)}, which the client builder does for the transport it
+ * owns.
+ */
+public class MoviesClientMetrics implements ExchangeFilterFunction {
+
+    public static final String OPERATION_ATTRIBUTE = MoviesClientMetrics.class.getName() + ".operation";
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        OperationMetrics metrics = operations.computeIfAbsent(operationOf(request), OperationMetrics::new);
+        ClientRequest counted = countBytesOut(request, metrics);
+        return Mono.defer(() -> {
+            ExchangeTimer timer = new ExchangeTimer(metrics);
+            return next.exchange(counted)
+                    .map(response -> countBytesIn(response, timer))
+                    .doOnError(ex -> {
+                        metrics.failedExchanges.increment();
+                        timer.finish();
+                    })
+                    .doOnCancel(timer::cancel)
+                    .subscriberContext(Context.of(ExchangeTimer.class, timer));
+        });
+    }
+
+    public HttpClient instrument(HttpClient httpClient) {
+        return httpClient.doOnRequest((request, connection) -> request.currentContext()
+                .<ExchangeTimer>getOrEmpty(ExchangeTimer.class)
+                .ifPresent(ExchangeTimer::connectionAcquired));
+    }
+
+    public Map<String, OperationSnapshot> snapshot() {
+        Map<String, OperationSnapshot> snapshot = new TreeMap<>();
+        operations.forEach((operation, metrics) -> snapshot.put(operation, metrics.snapshot()));
+        return snapshot;
+    }
+
+    public OperationSnapshot snapshot(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    private static String operationOf(ClientRequest request) {
+        return request.attribute(OPERATION_ATTRIBUTE)
+                .map(Object::toString)
+                .orElseGet(() -> request.method().name());
+    }
+
+    private static ClientRequest countBytesOut(ClientRequest request, OperationMetrics metrics) {
+        if (request.method() == HttpMethod.GET || request.method() == HttpMethod.DELETE) {
+            return request;
+        }
+        return ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body().insert(new ClientHttpRequestDecorator(outputMessage) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        return super.writeWith(Flux.from(body)
+                                .doOnNext(buffer -> metrics.bytesOut.add(buffer.readableByteCount())));
+                    }
+                }, context))
+                .build();
+    }
+
+    /**
+     * Responses with a status code unknown to {@link HttpStatus} cannot be rebuilt and are passed on as they are;
+     * their latency runs until the headers arrived and their bytes are not counted.
+     */
+    private static ClientResponse countBytesIn(ClientResponse response, ExchangeTimer timer) {
+        OperationMetrics metrics = timer.metrics;
+        metrics.recordStatus(response.rawStatusCode());
+        if (HttpStatus.resolve(response.rawStatusCode()) == null) {
+            timer.finish();
+            return response;
+        }
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> metrics.bytesIn.add(buffer.readableByteCount()))
+                .doOnComplete(timer::finish)
+                .doOnError(ex -> timer.finish())
+                .doOnCancel(timer::cancel);
+        return ClientResponse.from(response).body(body).build();
+    }
+
+    private static final class ExchangeTimer {
+
+        private final OperationMetrics metrics;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean acquired = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        ExchangeTimer(OperationMetrics metrics) {
+            this.metrics = metrics;
+            metrics.inFlight.increment();
+        }
+
+        void connectionAcquired() {
+            if (acquired.compareAndSet(false, true)) {
+                metrics.connectionAcquireTime.record(System.nanoTime() - startNanos);
+            }
+        }
+
+        void finish() {
+            if (finished.compareAndSet(false, true)) {
+                metrics.latency.record(System.nanoTime() - startNanos);
+                metrics.inFlight.decrement();
+            }
+        }
+
+        /**
+         * Cancelled exchanges, such as the loser of a hedged pair, leave the in-flight gauge but are kept out of
+         * the latency histogram.
+         */
+        void cancel() {
+            if (finished.compareAndSet(false, true)) {
+                metrics.inFlight.decrement();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.wiremock.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+class OperationMetrics {
+
+    private final String operation;
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LatencyHistogram connectionAcquireTime = new LatencyHistogram();
+    final LongAdder inFlight = new LongAdder();
+    final LongAdder failedExchanges = new LongAdder();
+    final LongAdder bytesIn = new LongAdder();
+    final LongAdder bytesOut = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void recordStatus(int status) {
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    OperationSnapshot snapshot() {
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, counter) -> statuses.put(status, counter.sum()));
+        return new OperationSnapshot(operation, latency.snapshot(), connectionAcquireTime.snapshot(),
+                inFlight.sum(), statuses, failedExchanges.sum(), bytesIn.sum(), bytesOut.sum());
+    }
+}
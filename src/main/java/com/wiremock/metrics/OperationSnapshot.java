@@ -0,0 +1,23 @@
+package com.wiremock.metrics;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of the metrics of one client operation such as {@code retrieveMovieById}.
+ * {@code statusCounts} is keyed by HTTP status; exchanges that got no response are counted in
+ * {@code failedExchanges}.
+ */
+@Value
+public class OperationSnapshot {
+
+    String operation;
+    HistogramSnapshot latency;
+    HistogramSnapshot connectionAcquireTime;
+    long inFlight;
+    Map<Integer, Long> statusCounts;
+    long failedExchanges;
+    long bytesIn;
+    long bytesOut;
+}
@@ -0,0 +1,42 @@
+package com.wiremock.metrics;
+
+import lombok.Value;
+
+/**
+ * One exchange of a {@link TrafficRecorder} trace. {@code offsetMicros} counts from the opening of the trace,
+ * {@code durationMicros} runs until the response body has been read and {@code uri} is the raw path and query,
+ * which carry the arguments of the call. {@code status} is {@link #NO_RESPONSE} when no response arrived.
+ */
+@Value
+public class TraceRecord {
+
+    public static final int NO_RESPONSE = 0;
+
+    private static final int FIELDS = 8;
+
+    long offsetMicros;
+    long durationMicros;
+    String operation;
+    String method;
+    String uri;
+    int status;
+    long bytesOut;
+    long bytesIn;
+
+    /**
+     * @return the record as one tab-separated trace line, without the line break
+     */
+    public String format() {
+        return offsetMicros + "\t" + durationMicros + "\t" + operation + "\t" + method + "\t" + uri + "\t" + status
+                + "\t" + bytesOut + "\t" + bytesIn;
+    }
+
+    public static TraceRecord parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " fields but found " + fields.length);
+        }
+        return new TraceRecord(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2], fields[3], fields[4],
+                Integer.parseInt(fields[5]), Long.parseLong(fields[6]), Long.parseLong(fields[7]));
+    }
+}
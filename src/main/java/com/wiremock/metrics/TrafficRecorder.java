@@ -0,0 +1,254 @@
+package com.wiremock.metrics;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes every exchange of the movies client to a trace file as one {@link TraceRecord} line, so that a real
+ * request mix can be replayed later. Operations are taken from {@link MoviesClientMetrics#OPERATION_ATTRIBUTE}.
+ * Request bodies are not kept, only their size.
+ * <p>
+ * A call only pays for a queue offer; a daemon thread formats and writes the records. Once {@code capacity}
+ * records are waiting, further ones are dropped and counted instead of slowing calls down. Records are written
+ * in completion order, {@link #read(Path)} sorts them by start. As with the metrics, retried and hedged attempts
+ * are separate exchanges, and cancelled ones are left out.
+ */
+public final class TrafficRecorder implements ExchangeFilterFunction, AutoCloseable {
+
+    public static final String HEADER = "# movies-trace v1";
+    public static final int DEFAULT_CAPACITY = 65_536;
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficRecorder.class);
+    private static final TraceRecord END = new TraceRecord(0, 0, "", "", "", 0, 0, 0);
+
+    private final Path path;
+    private final BufferedWriter writer;
+    private final BlockingQueue<TraceRecord> queue;
+    private final Thread writerThread;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    private TrafficRecorder(Path path, BufferedWriter writer, int capacity) {
+        this.path = path;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = new Thread(this::writeRecords, "traffic-recorder");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static TrafficRecorder open(Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Starts a new trace at {@code path}, replacing any previous one.
+     */
+    public static TrafficRecorder open(Path path, int capacity) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write(HEADER + " started=" + Instant.now() + "\n");
+        return new TrafficRecorder(path, writer, capacity);
+    }
+
+    /**
+     * @return the records of the trace at {@code path} ordered by their offset
+     */
+    public static List<TraceRecord> read(Path path) throws IOException {
+        List<TraceRecord> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                throw new IOException(path + " is not a movies trace");
+            }
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    records.add(TraceRecord.parse(line));
+                } catch (IllegalArgumentException ex) {
+                    throw new IOException(path + ":" + lineNumber + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+        records.sort(Comparator.comparingLong(TraceRecord::getOffsetMicros));
+        return records;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (closed) {
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            Exchange exchange = new Exchange(request);
+            return next.exchange(exchange.countBytesOut(request))
+                    .map(exchange::countBytesIn)
+                    .doOnError(ex -> exchange.finish(TraceRecord.NO_RESPONSE));
+        });
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * @return the number of exchanges left out of the trace because the writer fell behind
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops recording and returns once the queued records have been written and the file is closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            while (writerThread.isAlive() && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                log.debug("Waiting for the traffic recorder to catch up");
+            }
+            writerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.sum() > 0) {
+            log.warn("Dropped {} of {} exchanges from the trace {}", dropped.sum(), dropped.sum() + recorded.sum(),
+                    path);
+        }
+    }
+
+    private void record(TraceRecord record) {
+        if (!closed && queue.offer(record)) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void writeRecords() {
+        try (BufferedWriter out = writer) {
+            while (true) {
+                TraceRecord record = queue.poll();
+                if (record == null) {
+                    out.flush();
+                    record = queue.take();
+                }
+                if (record == END) {
+                    return;
+                }
+                out.write(record.format());
+                out.write('\n');
+            }
+        } catch (IOException ex) {
+            closed = true;
+            log.warn("Stopped recording traffic to {}: {}", path, ex.toString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class Exchange {
+
+        private final long sentNanos = System.nanoTime();
+        private final String operation;
+        private final String method;
+        private final String uri;
+        private final AtomicLong bytesOut = new AtomicLong();
+        private final AtomicLong bytesIn = new AtomicLong();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Exchange(ClientRequest request) {
+            URI url = request.url();
+            this.operation = request.attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE)
+                    .map(Object::toString)
+                    .orElseGet(() -> request.method().name());
+            this.method = request.method().name();
+            this.uri = url.getRawQuery() == null ? url.getRawPath() : url.getRawPath() + "?" + url.getRawQuery();
+        }
+
+        ClientRequest countBytesOut(ClientRequest request) {
+            if (request.method() == HttpMethod.GET || request.method() == HttpMethod.DELETE
+                    || request.method() == HttpMethod.HEAD) {
+                return request;
+            }
+            return ClientRequest.from(request)
+                    .body((outputMessage, context) -> request.body().insert(new ClientHttpRequestDecorator(outputMessage) {
+                        @Override
+                        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                            return super.writeWith(Flux.from(body)
+                                    .doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount())));
+                        }
+                    }, context))
+                    .build();
+        }
+
+        /**
+         * Responses with a status code unknown to {@link HttpStatus} cannot be rebuilt and are passed on as they
+         * are; they are recorded with their raw status as soon as they arrive, without their size.
+         */
+        ClientResponse countBytesIn(ClientResponse response) {
+            int status = response.rawStatusCode();
+            if (HttpStatus.resolve(status) == null) {
+                finish(status);
+                return response;
+            }
+            Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class)
+                    .doOnNext(buffer -> bytesIn.addAndGet(buffer.readableByteCount()))
+                    .doOnComplete(() -> finish(status))
+                    .doOnError(ex -> finish(status));
+            return ClientResponse.from(response).body(body).build();
+        }
+
+        void finish(int status) {
+            if (finished.compareAndSet(false, true)) {
+                long now = System.nanoTime();
+                record(new TraceRecord(TimeUnit.NANOSECONDS.toMicros(sentNanos - startNanos),
+                        TimeUnit.NANOSECONDS.toMicros(now - sentNanos), operation, method, uri, status,
+                        bytesOut.get(), bytesIn.get()));
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.wiremock.resilience;
+
+import com.wiremock.exception.ConcurrencyLimitExceededException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead whose size follows the movie service's latency (AIMD). Each completed call that stayed within
+ * {@code latencyTolerance} times the lowest recent latency grows the limit by {@code 1 / limit}, roughly one
+ * slot per window of calls; a call that failed or was slower shrinks it by {@code backoffRatio}. Calls above
+ * the limit wait in a bounded queue and are rejected with {@link ConcurrencyLimitExceededException} when the
+ * queue is full or they waited for longer than {@code maxQueueWait}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String group;
+    private final ConcurrencyLimitPolicy policy;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+
+    private double limit;
+    private int inFlight;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long minLatencyExpiresAt;
+
+    public AdaptiveConcurrencyLimiter(String group, ConcurrencyLimitPolicy policy) {
+        this.group = group;
+        this.policy = policy;
+        this.limit = policy.getInitialLimit();
+    }
+
+    public <T> Mono<T> limit(Mono<T> call) {
+        return acquire().flatMap(permit -> call
+                .doOnSuccess(result -> permit.release(false))
+                .doOnError(ex -> permit.release(CircuitBreaker.isFailure(ex)))
+                .doOnCancel(permit::cancel));
+    }
+
+    public <T> Flux<T> limitMany(Flux<T> call) {
+        return acquire().flatMapMany(permit -> call
+                .doOnComplete(() -> permit.release(false))
+                .doOnError(ex -> permit.release(CircuitBreaker.isFailure(ex)))
+                .doOnCancel(permit::cancel));
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return waiters.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            Permit permit = null;
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    permit = new Permit();
+                } else if (waiters.size() < policy.getMaxQueueSize()) {
+                    waiters.add(waiter);
+                } else {
+                    rejected.increment();
+                    sink.error(new ConcurrencyLimitExceededException(group, (int) limit));
+                    return;
+                }
+            }
+            if (permit != null) {
+                sink.success(permit);
+                return;
+            }
+            sink.onCancel(() -> cancel(waiter));
+        }).timeout(policy.getMaxQueueWait(), Mono.defer(() -> {
+            rejected.increment();
+            return Mono.error(new ConcurrencyLimitExceededException(group, getLimit()));
+        }));
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            granted = waiter.permit;
+        }
+        if (granted != null) {
+            granted.cancel();
+        }
+    }
+
+    private void onRelease(long latencyNanos, boolean failed, boolean sample) {
+        Deque<Waiter> granted = new ArrayDeque<>();
+        synchronized (this) {
+            inFlight--;
+            if (sample) {
+                adjustLimit(latencyNanos, failed);
+            }
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                Waiter waiter = waiters.poll();
+                inFlight++;
+                waiter.permit = new Permit();
+                granted.add(waiter);
+            }
+        }
+        for (Waiter waiter : granted) {
+            waiter.sink.success(waiter.permit);
+        }
+    }
+
+    private void adjustLimit(long latencyNanos, boolean failed) {
+        long now = System.nanoTime();
+        if (now - minLatencyExpiresAt > 0) {
+            minLatencyNanos = latencyNanos;
+            minLatencyExpiresAt = now + policy.getMinLatencyWindow().toNanos();
+        } else {
+            minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+        }
+        if (failed || latencyNanos > minLatencyNanos * policy.getLatencyTolerance()) {
+            limit = Math.max(policy.getMinLimit(), limit * policy.getBackoffRatio());
+        } else if (inFlight + 1 >= limit / 2) {
+            limit = Math.min(policy.getMaxLimit(), limit + 1 / limit);
+        }
+    }
+
+    private static final class Waiter {
+        final MonoSink<Permit> sink;
+        Permit permit;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final class Permit {
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(System.nanoTime() - start, failed, true);
+            }
+        }
+
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(0, false, false);
+            }
+        }
+    }
+}
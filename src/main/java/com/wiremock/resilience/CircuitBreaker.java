@@ -0,0 +1,172 @@
+package com.wiremock.resilience;
+
+import com.wiremock.exception.CircuitBreakerOpenException;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieRequestRejectedException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Count-based circuit breaker of a single endpoint.
+ * <p>
+ * While CLOSED every call is let through and its outcome recorded in a sliding window. Once the window holds
+ * enough calls and either the failure rate or the slow-call rate reaches its threshold, the breaker OPENs and
+ * rejects calls with {@link CircuitBreakerOpenException} until the wait duration has passed. It then lets a
+ * few trial calls through (HALF_OPEN): a failure re-opens it, all of them succeeding closes it.
+ * <p>
+ * Failures are answers of 5xx and calls that got no answer at all; a 4xx means the service is healthy and
+ * calls the client rejected on its own are not counted.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String endpoint;
+    private final CircuitBreakerPolicy policy;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int index;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String endpoint, CircuitBreakerPolicy policy) {
+        this.endpoint = endpoint;
+        this.policy = policy;
+        this.failed = new boolean[policy.getSlidingWindowSize()];
+        this.slow = new boolean[policy.getSlidingWindowSize()];
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return Mono.error(new CircuitBreakerOpenException(endpoint));
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(result -> onResult(System.nanoTime() - start, false))
+                    .doOnError(ex -> onResult(System.nanoTime() - start, isFailure(ex)))
+                    .doOnCancel(this::releasePermission);
+        });
+    }
+
+    public <T> Flux<T> protectMany(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return Flux.error(new CircuitBreakerOpenException(endpoint));
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnComplete(() -> onResult(System.nanoTime() - start, false))
+                    .doOnError(ex -> onResult(System.nanoTime() - start, isFailure(ex)))
+                    .doOnCancel(this::releasePermission);
+        });
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && waitElapsed()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (!waitElapsed()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = policy.getPermittedCallsInHalfOpenState();
+            halfOpenSuccesses = 0;
+        }
+        if (halfOpenPermits == 0) {
+            return false;
+        }
+        halfOpenPermits--;
+        return true;
+    }
+
+    synchronized void onResult(long durationNanos, boolean failure) {
+        boolean slowCall = durationNanos >= policy.getSlowCallDuration().toNanos();
+        if (state == State.HALF_OPEN) {
+            if (failure || slowCall) {
+                open();
+            } else if (++halfOpenSuccesses == policy.getPermittedCallsInHalfOpenState()) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        record(failure, slowCall);
+        if (calls >= policy.getMinimumNumberOfCalls()
+                && (failures * 100.0 / calls >= policy.getFailureRateThreshold()
+                || slowCalls * 100.0 / calls >= policy.getSlowCallRateThreshold())) {
+            open();
+        }
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (calls == failed.length) {
+            failures -= failed[index] ? 1 : 0;
+            slowCalls -= slow[index] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        failed[index] = failure;
+        slow[index] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        index = (index + 1) % failed.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        index = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private boolean waitElapsed() {
+        return System.nanoTime() - openedAt >= policy.getWaitDurationInOpenState().toNanos();
+    }
+
+    static boolean isFailure(Throwable ex) {
+        if (ex instanceof MovieRequestRejectedException) {
+            return false;
+        }
+        if (!(ex instanceof MovieErrorResponse)) {
+            return true;
+        }
+        int status = ((MovieErrorResponse) ex).getRawStatusCode();
+        return status == 0 || status >= 500;
+    }
+}
@@ -0,0 +1,34 @@
+package com.wiremock.resilience;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Thresholds shared by the circuit breakers of all endpoints of a client. Rates are percentages of the
+ * calls in the sliding window.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CircuitBreakerPolicy {
+
+    @Builder.Default
+    int slidingWindowSize = 20;
+    @Builder.Default
+    int minimumNumberOfCalls = 10;
+    @Builder.Default
+    double failureRateThreshold = 50;
+    @Builder.Default
+    double slowCallRateThreshold = 80;
+    @Builder.Default
+    Duration slowCallDuration = Duration.ofSeconds(2);
+    @Builder.Default
+    Duration waitDurationInOpenState = Duration.ofSeconds(5);
+    @Builder.Default
+    int permittedCallsInHalfOpenState = 3;
+
+    public static CircuitBreakerPolicy defaults() {
+        return builder().build();
+    }
+}
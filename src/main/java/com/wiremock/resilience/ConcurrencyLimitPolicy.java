@@ -0,0 +1,45 @@
+package com.wiremock.resilience;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings of an {@link AdaptiveConcurrencyLimiter}. The limit starts at {@code initialLimit} and moves
+ * between {@code minLimit} and {@code maxLimit}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ConcurrencyLimitPolicy {
+
+    @Builder.Default
+    int initialLimit = 20;
+    @Builder.Default
+    int minLimit = 1;
+    @Builder.Default
+    int maxLimit = 200;
+    /**
+     * Factor the limit is multiplied by when a call failed or took too long.
+     */
+    @Builder.Default
+    double backoffRatio = 0.9;
+    /**
+     * A call counts as too slow once its latency exceeds this multiple of the lowest latency seen recently.
+     */
+    @Builder.Default
+    double latencyTolerance = 2.0;
+    /**
+     * How long the lowest observed latency is remembered before it is measured again.
+     */
+    @Builder.Default
+    Duration minLatencyWindow = Duration.ofSeconds(30);
+    @Builder.Default
+    int maxQueueSize = 50;
+    @Builder.Default
+    Duration maxQueueWait = Duration.ofSeconds(1);
+
+    public static ConcurrencyLimitPolicy defaults() {
+        return builder().build();
+    }
+}
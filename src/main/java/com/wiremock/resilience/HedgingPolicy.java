@@ -0,0 +1,183 @@
+package com.wiremock.resilience;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second, identical request when the first one has not answered within the hedge delay and keeps
+ * whichever succeeds first; the other one is cancelled. Only meant for idempotent reads.
+ * <p>
+ * The delay is either fixed or follows a percentile of recently observed latencies. Hedges are paid for
+ * from a token bucket that every request tops up by the budget ratio, so hedges stay below that share of
+ * traffic once the initial burst is spent.
+ */
+public class HedgingPolicy {
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final Duration fixedDelay;
+    private final double percentile;
+    private final double budgetRatio;
+    private final double maxTokens;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int sampleIndex;
+    private long percentileDelayNanos;
+    private double tokens;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+
+    private HedgingPolicy(Duration fixedDelay, double percentile, double budgetPercent, int burst) {
+        if (budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("budgetPercent must be between 0 and 100: " + budgetPercent);
+        }
+        this.fixedDelay = fixedDelay;
+        this.percentile = percentile;
+        this.budgetRatio = budgetPercent / 100;
+        this.maxTokens = burst;
+        this.tokens = burst;
+        this.percentileDelayNanos = fixedDelay.toNanos();
+    }
+
+    /**
+     * Hedges after a fixed delay, with at most 5% extra requests.
+     */
+    public static HedgingPolicy fixedDelay(Duration delay) {
+        return new HedgingPolicy(delay, 0, 5, 10);
+    }
+
+    /**
+     * Hedges once a request has been outstanding longer than the given percentile (for example 95) of the
+     * latencies recorded so far, and after {@code initialDelay} until enough latencies have been seen.
+     */
+    public static HedgingPolicy percentile(double percentile, Duration initialDelay) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        return new HedgingPolicy(initialDelay, percentile, 5, 10);
+    }
+
+    /**
+     * @param budgetPercent hedges allowed as a share of all requests
+     * @param burst         hedges that may be sent before the budget has been earned
+     */
+    public HedgingPolicy withBudget(double budgetPercent, int burst) {
+        return new HedgingPolicy(fixedDelay, percentile, budgetPercent, burst);
+    }
+
+    /**
+     * Keeps the first attempt that succeeds. An attempt that fails while the other one is still outstanding is
+     * dropped in favour of it, so the call only fails once both have failed, or the first one failed before the
+     * hedge was sent.
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            long start = onRequest();
+            AtomicInteger attempts = new AtomicInteger(1);
+            Mono<T> hedge = Mono.defer(() -> tryAcquireHedge(attempts) ? fallBackOnError(request.get(), attempts)
+                    : Mono.<T>never())
+                    .delaySubscription(currentDelay());
+            return Mono.first(fallBackOnError(request.get(), attempts), hedge)
+                    .doOnSuccess(result -> record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Like {@link #hedge(Supplier)}, where an attempt is kept once it emitted its first element; errors after
+     * that are not hedged.
+     */
+    public <T> Flux<T> hedgeMany(Supplier<Flux<T>> request) {
+        return Flux.defer(() -> {
+            long start = onRequest();
+            AtomicInteger attempts = new AtomicInteger(1);
+            Flux<T> hedge = Flux.defer(() -> tryAcquireHedge(attempts) ? fallBackOnEarlyError(request.get(), attempts)
+                    : Flux.<T>never())
+                    .delaySubscription(currentDelay());
+            return Flux.first(fallBackOnEarlyError(request.get(), attempts), hedge)
+                    .doOnComplete(() -> record(System.nanoTime() - start));
+        });
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    Duration currentDelay() {
+        if (percentile == 0) {
+            return fixedDelay;
+        }
+        synchronized (samples) {
+            return Duration.ofNanos(percentileDelayNanos);
+        }
+    }
+
+    private long onRequest() {
+        requests.increment();
+        synchronized (samples) {
+            tokens = Math.min(maxTokens, tokens + budgetRatio);
+        }
+        return System.nanoTime();
+    }
+
+    private boolean tryAcquireHedge(AtomicInteger attempts) {
+        synchronized (samples) {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+        }
+        hedges.increment();
+        attempts.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Turns the error of an attempt into silence while another attempt is outstanding, so that the race goes
+     * to that one.
+     */
+    private static <T> Mono<T> fallBackOnError(Mono<T> attempt, AtomicInteger attempts) {
+        return attempt.onErrorResume(ex -> attempts.decrementAndGet() == 0 ? Mono.error(ex) : Mono.never());
+    }
+
+    private static <T> Flux<T> fallBackOnEarlyError(Flux<T> attempt, AtomicInteger attempts) {
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            return attempt.doOnNext(element -> emitted.set(true))
+                    .onErrorResume(ex -> emitted.get() || attempts.decrementAndGet() == 0 ? Flux.error(ex)
+                            : Flux.never());
+        });
+    }
+
+    private void record(long latencyNanos) {
+        if (percentile == 0) {
+            return;
+        }
+        synchronized (samples) {
+            samples[sampleIndex] = latencyNanos;
+            sampleIndex = (sampleIndex + 1) % SAMPLE_SIZE;
+            if (sampleCount < SAMPLE_SIZE) {
+                sampleCount++;
+            }
+            if (sampleCount == MIN_SAMPLES || sampleIndex % RECOMPUTE_EVERY == 0) {
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                percentileDelayNanos = sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.wiremock.resilience;
+
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends every exchange to one of several instances of the movie service, chosen by {@link LoadBalancerPolicy}.
+ * Requests are built against the first base URL; this filter swaps that prefix for the chosen instance's.
+ * <p>
+ * Latency is measured until the response headers arrive. An instance that answers with 5xx or not at all
+ * {@code consecutiveFailuresToEject} times in a row is ejected for a while, then re-admitted: one success
+ * keeps it in, one more failure ejects it again for longer. Its latency is forgotten on ejection; until then a
+ * re-admitted instance is sent a single probe request at a time, which measures it afresh, rather than all
+ * the traffic its missing latency would attract. When every instance is ejected, all of them are used again
+ * rather than failing every call. The transport pools connections per host and port, so each
+ * instance has a pool of its own.
+ */
+public class LoadBalancer implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancer.class);
+
+    private final LoadBalancerPolicy policy;
+    private final String primaryBaseUrl;
+    private final List<Instance> instances;
+
+    public LoadBalancer(List<String> baseUrls, LoadBalancerPolicy policy) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one base URL is required");
+        }
+        this.policy = policy;
+        this.primaryBaseUrl = withoutTrailingSlash(baseUrls.get(0));
+        List<Instance> created = new ArrayList<>(baseUrls.size());
+        for (String baseUrl : baseUrls) {
+            created.add(new Instance(withoutTrailingSlash(baseUrl)));
+        }
+        this.instances = Collections.unmodifiableList(created);
+    }
+
+    public String getPrimaryBaseUrl() {
+        return primaryBaseUrl;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Instance instance = claimProbe(now);
+            boolean probe = instance != null;
+            if (!probe) {
+                instance = choose(now);
+            }
+            ClientRequest routed = ClientRequest.from(request).url(instance.resolve(request.url(), primaryBaseUrl)).build();
+            Exchange exchange = new Exchange(instance, probe);
+            return next.exchange(routed)
+                    .doOnNext(response -> exchange.finish(response.rawStatusCode() >= 500))
+                    .doOnError(ex -> exchange.finish(true))
+                    .doOnCancel(exchange::cancel);
+        });
+    }
+
+    /**
+     * @return the state of every instance, in the order of the base URLs
+     */
+    public List<InstanceSnapshot> snapshot() {
+        long now = System.nanoTime();
+        List<InstanceSnapshot> snapshot = new ArrayList<>(instances.size());
+        for (Instance instance : instances) {
+            snapshot.add(new InstanceSnapshot(instance.baseUrl, instance.outstanding.get(),
+                    Duration.ofNanos((long) instance.latencyNanos), instance.isEjected(now), instance.requests.sum(),
+                    instance.failures.sum()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return a re-admitted instance whose probe this request has taken, or null if there is none to probe
+     */
+    private Instance claimProbe(long nowNanos) {
+        for (Instance instance : instances) {
+            if (instance.isOnProbation(nowNanos) && instance.probing.compareAndSet(false, true)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    private Instance choose(long nowNanos) {
+        List<Instance> candidates = new ArrayList<>(instances.size());
+        for (Instance instance : instances) {
+            if (!instance.isEjected(nowNanos) && !instance.isOnProbation(nowNanos)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        if (policy.getSelection() == LoadBalancerPolicy.Selection.LEAST_OUTSTANDING) {
+            Instance best = candidates.get(0);
+            for (Instance candidate : candidates) {
+                int outstanding = candidate.outstanding.get();
+                int bestOutstanding = best.outstanding.get();
+                if (outstanding < bestOutstanding
+                        || outstanding == bestOutstanding && candidate.latencyNanos < best.latencyNanos) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Instance a = candidates.get(first);
+        Instance b = candidates.get(second);
+        return a.cost() <= b.cost() ? a : b;
+    }
+
+    private static String withoutTrailingSlash(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * State of one instance as seen by the balancer. {@code latency} is the moving average of the time to the
+     * response headers.
+     */
+    @Value
+    public static class InstanceSnapshot {
+
+        String baseUrl;
+        int outstanding;
+        Duration latency;
+        boolean ejected;
+        long requests;
+        long failures;
+    }
+
+    private final class Instance {
+
+        final String baseUrl;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final AtomicBoolean probing = new AtomicBoolean();
+        volatile double latencyNanos;
+        private int consecutiveFailures;
+        private int ejections;
+        private volatile long ejectedUntilNanos;
+        private volatile boolean ejected;
+
+        Instance(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        URI resolve(URI url, String primary) {
+            String target = url.toString();
+            return target.startsWith(primary) ? URI.create(baseUrl + target.substring(primary.length())) : url;
+        }
+
+        double cost() {
+            return (latencyNanos + 1) * (outstanding.get() + 1);
+        }
+
+        boolean isEjected(long nowNanos) {
+            return ejected && nowNanos - ejectedUntilNanos < 0;
+        }
+
+        boolean isOnProbation(long nowNanos) {
+            return ejected && nowNanos - ejectedUntilNanos >= 0;
+        }
+
+        synchronized void onResult(long elapsedNanos, boolean failure) {
+            latencyNanos = latencyNanos == 0 ? elapsedNanos
+                    : latencyNanos + policy.getLatencyWeight() * (elapsedNanos - latencyNanos);
+            if (!failure) {
+                consecutiveFailures = 0;
+                ejections = 0;
+                ejected = false;
+                return;
+            }
+            failures.increment();
+            consecutiveFailures++;
+            if (consecutiveFailures >= policy.getConsecutiveFailuresToEject() && !isEjected(System.nanoTime())) {
+                Duration duration = policy.getEjectionDuration().multipliedBy(1L << Math.min(ejections, 20));
+                if (duration.compareTo(policy.getMaxEjectionDuration()) > 0) {
+                    duration = policy.getMaxEjectionDuration();
+                }
+                ejections++;
+                ejected = true;
+                latencyNanos = 0;
+                ejectedUntilNanos = System.nanoTime() + duration.toNanos();
+                log.warn("Ejecting {} for {} after {} failures in a row", baseUrl, duration, consecutiveFailures);
+            }
+        }
+    }
+
+    private static final class Exchange {
+
+        private final Instance instance;
+        private final boolean probe;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Exchange(Instance instance, boolean probe) {
+            this.instance = instance;
+            this.probe = probe;
+            instance.outstanding.incrementAndGet();
+            instance.requests.increment();
+        }
+
+        void finish(boolean failure) {
+            if (done.compareAndSet(false, true)) {
+                instance.outstanding.decrementAndGet();
+                instance.onResult(System.nanoTime() - startNanos, failure);
+                releaseProbe();
+            }
+        }
+
+        void cancel() {
+            if (done.compareAndSet(false, true)) {
+                instance.outstanding.decrementAndGet();
+                releaseProbe();
+            }
+        }
+
+        private void releaseProbe() {
+            if (probe) {
+                instance.probing.set(false);
+            }
+        }
+    }
+}
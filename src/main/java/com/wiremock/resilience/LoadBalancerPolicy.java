@@ -0,0 +1,48 @@
+package com.wiremock.resilience;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * How a client spreads its requests over the instances of the movie service and when it stops sending to one.
+ */
+@Value
+@Builder(toBuilder = true)
+public class LoadBalancerPolicy {
+
+    public enum Selection {
+        /**
+         * The instance with the fewest requests in flight, ties broken by observed latency.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * The cheaper of two random instances, where the cost is the observed latency times the requests in
+         * flight; avoids herding on one instance without scanning all of them.
+         */
+        POWER_OF_TWO_CHOICES
+    }
+
+    @Builder.Default
+    Selection selection = Selection.POWER_OF_TWO_CHOICES;
+    /**
+     * Weight of the newest sample in the moving average of an instance's latency.
+     */
+    @Builder.Default
+    double latencyWeight = 0.3;
+    @Builder.Default
+    int consecutiveFailuresToEject = 5;
+    /**
+     * How long an instance is ejected the first time; every ejection in a row doubles it, up to
+     * {@code maxEjectionDuration}.
+     */
+    @Builder.Default
+    Duration ejectionDuration = Duration.ofSeconds(10);
+    @Builder.Default
+    Duration maxEjectionDuration = Duration.ofMinutes(2);
+
+    public static LoadBalancerPolicy defaults() {
+        return builder().build();
+    }
+}
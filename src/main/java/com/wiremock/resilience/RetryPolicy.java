@@ -0,0 +1,65 @@
+package com.wiremock.resilience;
+
+import lombok.Builder;
+import lombok.Value;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Retries failed idempotent calls with exponential backoff. Each delay is drawn uniformly from
+ * [(1 - jitter) * backoff, backoff] so that callers that failed together do not retry together.
+ * Only failures that a retry can fix are retried (5xx answers and calls without an answer), never 4xx
+ * answers or calls the client rejected on its own, such as those refused by an open circuit breaker.
+ */
+@Value
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    @Builder.Default
+    int maxRetries = 2;
+    @Builder.Default
+    Duration initialBackoff = Duration.ofMillis(100);
+    @Builder.Default
+    Duration maxBackoff = Duration.ofSeconds(2);
+    @Builder.Default
+    double jitter = 0.5;
+
+    public static RetryPolicy defaults() {
+        return builder().build();
+    }
+
+    public <T> Mono<T> apply(Mono<T> call) {
+        return call.retryWhen(errors -> errors.index().flatMap(attempt -> retryOrFail(attempt.getT1(), attempt.getT2())));
+    }
+
+    /**
+     * Retries only when the failed attempt has not emitted any element yet, so subscribers never see
+     * duplicates.
+     */
+    public <T> Flux<T> applyMany(Flux<T> call) {
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            return call.doOnNext(element -> emitted.set(true))
+                    .retryWhen(errors -> errors.index().flatMap(attempt -> emitted.get()
+                            ? Mono.error(attempt.getT2())
+                            : retryOrFail(attempt.getT1(), attempt.getT2())));
+        });
+    }
+
+    Duration backoff(long attempt) {
+        long base = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt, 30));
+        long jittered = base - (long) (base * jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofNanos(jittered);
+    }
+
+    private Mono<Long> retryOrFail(long attempt, Throwable ex) {
+        if (attempt >= maxRetries || !CircuitBreaker.isFailure(ex)) {
+            return Mono.error(ex);
+        }
+        return Mono.delay(backoff(attempt));
+    }
+}
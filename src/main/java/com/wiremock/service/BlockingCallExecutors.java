@@ -0,0 +1,73 @@
+package com.wiremock.service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for the blocking calls submitted through {@link MoviesRestClient#submit}. A blocked call waits on a
+ * latch, not on a monitor, so it parks a virtual thread without pinning its carrier; the client's own
+ * {@code synchronized} sections never wait on I/O.
+ */
+public final class BlockingCallExecutors {
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private BlockingCallExecutors() {
+    }
+
+    /**
+     * @return {@code true} when the runtime is Java 21 or later and can start virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Starts one virtual thread per call.
+     *
+     * @throws IllegalStateException when the runtime has no virtual threads
+     */
+    public static ExecutorService virtualThreads() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Could not create a virtual thread executor", ex);
+        }
+    }
+
+    /**
+     * Runs every call on a platform daemon thread of its own, reusing threads that have been idle for less
+     * than a minute.
+     */
+    public static ExecutorService platformThreads(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * @return virtual threads when the runtime supports them, otherwise {@link #platformThreads(String)}
+     */
+    public static ExecutorService perCall(String name) {
+        return isVirtualThreadsSupported() ? virtualThreads() : platformThreads(name);
+    }
+
+    private static Method findVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+}
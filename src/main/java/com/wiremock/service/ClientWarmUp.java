@@ -0,0 +1,221 @@
+package com.wiremock.service;
+
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.metrics.MoviesClientMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link WarmUpPlan}: opens connections with concurrent {@code HEAD} requests, round-trips a sample movie
+ * through the client's own encoders and decoders so that Jackson builds its serializers for {@link Movie} ahead
+ * of the first call, then replays the synthetic requests.
+ */
+final class ClientWarmUp {
+
+    private static final Movie SAMPLE = new Movie(1, "Warm-up Cast", "Warm-up", LocalDate.of(2000, 1, 1), 2000);
+    private static final ResolvableType MOVIE_TYPE = ResolvableType.forClass(Movie.class);
+    private static final Map<String, Object> NO_HINTS = Collections.emptyMap();
+
+    private final ReactiveMoviesRestClient client;
+    private final WebClient webClient;
+    private final ExchangeStrategies strategies;
+    private final List<MediaType> mediaTypes;
+
+    ClientWarmUp(ReactiveMoviesRestClient client, WebClient webClient, ExchangeStrategies strategies,
+                 List<MediaType> mediaTypes) {
+        this.client = client;
+        this.webClient = webClient;
+        this.strategies = strategies;
+        this.mediaTypes = mediaTypes;
+    }
+
+    Mono<WarmUpReport> run(WarmUpPlan plan) {
+        AtomicInteger failedConnections = new AtomicInteger();
+        AtomicInteger failedRequests = new AtomicInteger();
+        Duration[] durations = new Duration[3];
+        Mono<Void> connect = openConnections(plan.getConnections(), failedConnections);
+        Mono<Void> codecs = plan.isPrimeCodecs() ? primeCodecs() : Mono.empty();
+        Mono<Void> synthetic = replay(plan, failedRequests);
+        return timed(connect, duration -> durations[0] = duration)
+                .then(timed(codecs, duration -> durations[1] = duration))
+                .then(timed(synthetic, duration -> durations[2] = duration))
+                .then(Mono.fromSupplier(() -> new WarmUpReport(plan.getConnections(), failedConnections.get(),
+                        durations[0], durations[1], plan.getSyntheticRequests().size() * plan.getRounds(),
+                        failedRequests.get(), durations[2])));
+    }
+
+    private Mono<Void> openConnections(int connections, AtomicInteger failures) {
+        return Flux.range(0, connections)
+                .flatMap(i -> webClient.head().uri(MoviesAppConstants.GET_ALL_MOVIES)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, "warmUp")
+                        .exchange()
+                        .flatMap(response -> response.bodyToMono(Void.class))
+                        .onErrorResume(ex -> {
+                            failures.incrementAndGet();
+                            return Mono.empty();
+                        }), Math.max(connections, 1))
+                .then();
+    }
+
+    private Mono<Void> primeCodecs() {
+        return Flux.fromIterable(mediaTypes)
+                .concatMap(mediaType -> encode(mediaType, Mono.just(SAMPLE))
+                        .flatMap(single -> decodeMono(mediaType, single))
+                        .then(encode(mediaType, Flux.just(SAMPLE, SAMPLE)))
+                        .flatMap(list -> decodeFlux(mediaType, list)))
+                .then();
+    }
+
+    private Mono<Void> replay(WarmUpPlan plan, AtomicInteger failures) {
+        List<Function<ReactiveMoviesRestClient, Publisher<?>>> requests = plan.getSyntheticRequests();
+        return Flux.range(0, requests.isEmpty() ? 0 : plan.getRounds())
+                .concatMap(round -> Flux.fromIterable(requests)
+                        .concatMap(request -> Flux.from(request.apply(client))
+                                .then()
+                                .onErrorResume(ex -> {
+                                    failures.incrementAndGet();
+                                    return Mono.empty();
+                                })))
+                .then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<byte[]> encode(MediaType mediaType, Publisher<Movie> movies) {
+        for (HttpMessageWriter<?> writer : strategies.messageWriters()) {
+            if (writer.canWrite(MOVIE_TYPE, mediaType)) {
+                BufferingOutputMessage message = new BufferingOutputMessage();
+                return ((HttpMessageWriter<Movie>) writer).write(movies, MOVIE_TYPE, mediaType, message, NO_HINTS)
+                        .then(Mono.fromSupplier(message::getBody));
+            }
+        }
+        return Mono.empty();
+    }
+
+    private Mono<Void> decodeMono(MediaType mediaType, byte[] body) {
+        HttpMessageReader<?> reader = reader(mediaType);
+        return reader == null ? Mono.empty() : reader.readMono(MOVIE_TYPE, new BufferedInputMessage(mediaType, body), NO_HINTS).then();
+    }
+
+    private Mono<Void> decodeFlux(MediaType mediaType, byte[] body) {
+        HttpMessageReader<?> reader = reader(mediaType);
+        return reader == null ? Mono.empty() : reader.read(MOVIE_TYPE, new BufferedInputMessage(mediaType, body), NO_HINTS).then();
+    }
+
+    /**
+     * @return the reader the client itself would pick, the first one that can read a movie
+     */
+    private HttpMessageReader<?> reader(MediaType mediaType) {
+        for (HttpMessageReader<?> reader : strategies.messageReaders()) {
+            if (reader.canRead(MOVIE_TYPE, mediaType)) {
+                return reader;
+            }
+        }
+        return null;
+    }
+
+    private static Mono<Void> timed(Mono<Void> step, Consumer<Duration> duration) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return step.doFinally(signal -> duration.accept(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private static final class BufferedInputMessage implements ReactiveHttpInputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final byte[] body;
+
+        BufferedInputMessage(MediaType mediaType, byte[] body) {
+            this.headers.setContentType(mediaType);
+            this.body = body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> Flux.just(new DefaultDataBufferFactory().wrap(body)));
+        }
+    }
+
+    private static final class BufferingOutputMessage implements ReactiveHttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        private byte[] body = new byte[0];
+        private boolean committed;
+
+        byte[] getBody() {
+            return body;
+        }
+
+        @Override
+        public DataBufferFactory bufferFactory() {
+            return bufferFactory;
+        }
+
+        @Override
+        public void beforeCommit(Supplier<? extends Mono<Void>> action) {
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.<DataBuffer>from(body))
+                    .doOnNext(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        this.body = bytes;
+                    })
+                    .then(setComplete());
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMap(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.fromRunnable(() -> committed = true);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.wiremock.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight registry: while a request for a key is running, every other subscriber for the same key
+ * joins it and receives the same result or error instead of starting its own exchange. The key is released
+ * before the outcome is delivered, so a caller that starts after another has returned always goes upstream.
+ */
+class InFlightRequests {
+
+    private final ConcurrentMap<String, Object> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T> Mono<T> coalesce(String key, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            Mono<T> existing = (Mono<T>) inFlight.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            Object[] self = new Object[1];
+            Mono<T> shared = request.get()
+                    .doOnSuccessOrError((result, ex) -> inFlight.remove(key, self[0]))
+                    .cache();
+            self[0] = shared;
+            existing = (Mono<T>) inFlight.putIfAbsent(key, shared);
+            return existing != null ? existing : shared;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Flux<T> coalesceMany(String key, Supplier<Flux<T>> request) {
+        return Flux.defer(() -> {
+            Flux<T> existing = (Flux<T>) inFlight.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            Object[] self = new Object[1];
+            Flux<T> shared = request.get()
+                    .doOnTerminate(() -> inFlight.remove(key, self[0]))
+                    .cache();
+            self[0] = shared;
+            existing = (Flux<T>) inFlight.putIfAbsent(key, shared);
+            return existing != null ? existing : shared;
+        });
+    }
+
+    int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.wiremock.service;
+
+import com.wiremock.Movie;
+import com.wiremock.exception.MovieErrorResponse;
+import lombok.Value;
+
+/**
+ * Result of writing one record of a bulk ingest. {@code index} is the record's position in the input.
+ */
+@Value
+public class IngestOutcome {
+
+    long index;
+    Movie movie;
+    Movie result;
+    MovieErrorResponse error;
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    public String getReason() {
+        if (error == null) {
+            return null;
+        }
+        int status = error.getRawStatusCode();
+        return status != 0 ? status + " " + error.getMessage() : error.getMessage();
+    }
+}
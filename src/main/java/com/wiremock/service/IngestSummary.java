@@ -0,0 +1,46 @@
+package com.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Running tally of a bulk ingest. Only failed outcomes are retained, successful ones are just counted.
+ */
+public class IngestSummary {
+
+    private long succeeded;
+    private long failed;
+    private final List<IngestOutcome> failures = new ArrayList<>();
+
+    IngestSummary add(IngestOutcome outcome) {
+        if (outcome.isSucceeded()) {
+            succeeded++;
+        } else {
+            failed++;
+            failures.add(outcome);
+        }
+        return this;
+    }
+
+    public long getTotal() {
+        return succeeded + failed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<IngestOutcome> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    @Override
+    public String toString() {
+        return "IngestSummary(total=" + getTotal() + ", succeeded=" + succeeded + ", failed=" + failed + ")";
+    }
+}
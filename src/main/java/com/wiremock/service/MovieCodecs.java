@@ -0,0 +1,110 @@
+package com.wiremock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.codec.MovieDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts the client's own decoders, NDJSON and the optional {@link MovieDecoder}, in front of the codecs of every
+ * response. The codecs of the {@code WebClient} the client was given are kept as they are, and the NDJSON decoder
+ * uses its Jackson {@link ObjectMapper} when it has one.
+ */
+final class MovieCodecs implements ExchangeFilterFunction {
+
+    private final MovieDecoder movieDecoder;
+    private volatile Extended extended;
+
+    MovieCodecs(MovieDecoder movieDecoder) {
+        this.movieDecoder = movieDecoder;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request).map(this::withMovieCodecs);
+    }
+
+    /**
+     * @return {@code strategies} with the decoders of this client in front of its readers
+     */
+    ExchangeStrategies extend(ExchangeStrategies strategies) {
+        Extended current = extended;
+        if (current == null || current.base != strategies) {
+            current = new Extended(strategies, readers(strategies));
+            extended = current;
+        }
+        return current;
+    }
+
+    /**
+     * Responses with a status code unknown to {@link HttpStatus} are passed on as they are; they fail as errors
+     * without being decoded.
+     */
+    private ClientResponse withMovieCodecs(ClientResponse response) {
+        HttpStatus status = HttpStatus.resolve(response.rawStatusCode());
+        if (status == null) {
+            return response;
+        }
+        return ClientResponse.create(status, extend(response.strategies()))
+                .headers(headers -> headers.addAll(response.headers().asHttpHeaders()))
+                .cookies(cookies -> cookies.addAll(response.cookies()))
+                .body(response.bodyToFlux(DataBuffer.class))
+                .build();
+    }
+
+    private List<HttpMessageReader<?>> readers(ExchangeStrategies strategies) {
+        List<HttpMessageReader<?>> readers = new ArrayList<>();
+        if (movieDecoder != null) {
+            readers.add(new DecoderHttpMessageReader<>(movieDecoder));
+        }
+        readers.add(new DecoderHttpMessageReader<>(
+                new Jackson2JsonDecoder(objectMapperOf(strategies), ReactiveMoviesRestClient.APPLICATION_NDJSON)));
+        readers.addAll(strategies.messageReaders());
+        return readers;
+    }
+
+    private static ObjectMapper objectMapperOf(ExchangeStrategies strategies) {
+        for (HttpMessageReader<?> reader : strategies.messageReaders()) {
+            if (reader instanceof DecoderHttpMessageReader
+                    && ((DecoderHttpMessageReader<?>) reader).getDecoder() instanceof Jackson2JsonDecoder) {
+                return ((Jackson2JsonDecoder) ((DecoderHttpMessageReader<?>) reader).getDecoder()).getObjectMapper();
+            }
+        }
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    private static final class Extended implements ExchangeStrategies {
+
+        private final ExchangeStrategies base;
+        private final List<HttpMessageReader<?>> readers;
+
+        Extended(ExchangeStrategies base, List<HttpMessageReader<?>> readers) {
+            this.base = base;
+            this.readers = readers;
+        }
+
+        @Override
+        public List<HttpMessageReader<?>> messageReaders() {
+            return readers;
+        }
+
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return base.messageWriters();
+        }
+    }
+}
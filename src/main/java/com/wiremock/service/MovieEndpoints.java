@@ -0,0 +1,34 @@
+package com.wiremock.service;
+
+import com.wiremock.constants.MoviesAppConstants;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Expands the templates of {@link MoviesAppConstants} into request paths. Expanded paths double as the keys
+ * under which concurrent identical GETs are coalesced.
+ */
+public final class MovieEndpoints {
+
+    private MovieEndpoints() {
+    }
+
+    public static String movieById(int movieId) {
+        return UriComponentsBuilder.fromUriString(MoviesAppConstants.GET_MOVIE_BY_ID)
+                .buildAndExpand(movieId)
+                .toUriString();
+    }
+
+    public static String moviesByName(String name) {
+        return UriComponentsBuilder.fromUriString(MoviesAppConstants.GET_MOVIE_BY_NAME)
+                .queryParam("movie_name", name)
+                .buildAndExpand()
+                .toUriString();
+    }
+
+    public static String moviesByYear(int year) {
+        return UriComponentsBuilder.fromUriString(MoviesAppConstants.GET_MOVIE_BY_YEAR)
+                .queryParam("year", year)
+                .buildAndExpand()
+                .toUriString();
+    }
+}
@@ -0,0 +1,171 @@
+package com.wiremock.service;
+
+import com.wiremock.exception.MovieClientErrorException;
+import com.wiremock.exception.MovieConnectionException;
+import com.wiremock.exception.MovieErrorKind;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieNotFoundException;
+import com.wiremock.exception.MovieServerErrorException;
+import com.wiremock.exception.MovieTimeoutException;
+import com.wiremock.metrics.ErrorCounters;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.codec.CodecException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Turns the failures of an exchange into the typed {@link MovieErrorResponse}s, counts them and logs them.
+ * Failures that are typed already, such as error statuses mapped by {@link #fromStatus(int)}, are counted and
+ * logged as they are. A 404 is an expected answer and only logged at debug level. Other errors are logged at
+ * most once per {@code logInterval} for each operation and kind, with the number of suppressed lines; response
+ * bodies are only read for debug logging.
+ */
+class MovieErrorTranslator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveMoviesRestClient.class);
+    private static final int MAX_CAUSE_DEPTH = 5;
+
+    private final boolean stackTraces;
+    private final long logIntervalNanos;
+    private final ErrorCounters errorCounters = new ErrorCounters();
+    private final ConcurrentMap<String, LogWindow[]> logWindows = new ConcurrentHashMap<>();
+
+    MovieErrorTranslator(boolean stackTraces, Duration logInterval) {
+        this.stackTraces = stackTraces;
+        this.logIntervalNanos = logInterval.toNanos();
+    }
+
+    MovieErrorResponse translate(String operation, Throwable ex) {
+        MovieErrorResponse error = classify(ex);
+        errorCounters.increment(operation, error.getKind());
+        if (error.getKind() == MovieErrorKind.NOT_FOUND) {
+            log.debug("{} found nothing: {}", operation, error.getMessage());
+        } else {
+            logRateLimited(operation, error, ex);
+        }
+        return error;
+    }
+
+    /**
+     * @param rawStatusCode an error status, 400 or above
+     * @return the error for a response known from its status alone; a {@code 404} never has a stack trace
+     */
+    MovieErrorResponse fromStatus(int rawStatusCode) {
+        HttpStatus status = HttpStatus.resolve(rawStatusCode);
+        String statusText = status != null ? status.getReasonPhrase() : "";
+        if (rawStatusCode == HttpStatus.NOT_FOUND.value()) {
+            return new MovieNotFoundException(statusText);
+        }
+        if (rawStatusCode < 500) {
+            return new MovieClientErrorException(statusText, rawStatusCode, stackTraces);
+        }
+        return new MovieServerErrorException(statusText, rawStatusCode, stackTraces);
+    }
+
+    /**
+     * @return whether response bodies of errors are logged, in which case they are worth reading
+     */
+    boolean logsResponseBodies() {
+        return log.isDebugEnabled();
+    }
+
+    void countRejection(String operation) {
+        errorCounters.increment(operation, MovieErrorKind.REJECTED);
+    }
+
+    ErrorCounters getErrorCounters() {
+        return errorCounters;
+    }
+
+    private MovieErrorResponse classify(Throwable ex) {
+        if (ex instanceof MovieErrorResponse) {
+            return (MovieErrorResponse) ex;
+        }
+        if (ex instanceof WebClientResponseException) {
+            WebClientResponseException responseException = (WebClientResponseException) ex;
+            int status = responseException.getRawStatusCode();
+            String statusText = responseException.getStatusText();
+            if (status == 404) {
+                return new MovieNotFoundException(statusText, responseException, stackTraces);
+            }
+            if (status >= 400 && status < 500) {
+                return new MovieClientErrorException(statusText, responseException, stackTraces);
+            }
+            if (status >= 500) {
+                return new MovieServerErrorException(statusText, responseException, stackTraces);
+            }
+            return new MovieErrorResponse(statusText, responseException);
+        }
+        Throwable cause = ex;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++, cause = cause.getCause()) {
+            if (cause instanceof CodecException) {
+                break;
+            }
+            if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException
+                    || cause instanceof ConnectTimeoutException) {
+                return new MovieTimeoutException(ex, stackTraces);
+            }
+            if (cause instanceof IOException || cause instanceof ChannelException) {
+                return new MovieConnectionException(ex, stackTraces);
+            }
+        }
+        return new MovieErrorResponse(ex);
+    }
+
+    private void logRateLimited(String operation, MovieErrorResponse error, Throwable ex) {
+        LogWindow window = logWindows.computeIfAbsent(operation, key -> newWindows())[error.getKind().ordinal()];
+        long suppressed = window.tryAcquire(System.nanoTime(), logIntervalNanos);
+        if (suppressed < 0) {
+            return;
+        }
+        if (error.getRawStatusCode() != 0) {
+            log.error("{} failed with status {} {} ({} similar errors suppressed)", operation,
+                    error.getRawStatusCode(), error.getMessage(), suppressed);
+            if (ex instanceof WebClientResponseException && log.isDebugEnabled()) {
+                log.debug("Response body of {}: {}", operation,
+                        ((WebClientResponseException) ex).getResponseBodyAsString());
+            }
+        } else if (error.getKind() == MovieErrorKind.OTHER) {
+            log.error("Exception in {} ({} similar errors suppressed): ", operation, suppressed, ex);
+        } else {
+            log.error("{} failed: {} ({} similar errors suppressed)", operation, ex, suppressed);
+        }
+    }
+
+    private static LogWindow[] newWindows() {
+        LogWindow[] windows = new LogWindow[MovieErrorKind.values().length];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new LogWindow();
+        }
+        return windows;
+    }
+
+    private static final class LogWindow {
+
+        private final AtomicLong nextLogNanos = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder suppressed = new LongAdder();
+
+        /**
+         * @return the number of lines suppressed since the last one when this line may be logged, otherwise -1
+         */
+        long tryAcquire(long nowNanos, long intervalNanos) {
+            long next = nextLogNanos.get();
+            if ((next == Long.MIN_VALUE || nowNanos - next >= 0) && nextLogNanos.compareAndSet(next, nowNanos + intervalNanos)) {
+                return suppressed.sumThenReset();
+            }
+            suppressed.increment();
+            return -1;
+        }
+    }
+}
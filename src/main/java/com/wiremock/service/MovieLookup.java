@@ -0,0 +1,40 @@
+package com.wiremock.service;
+
+import com.wiremock.Movie;
+import com.wiremock.exception.MovieErrorResponse;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of looking up a single id as part of a batch: either the movie or the error it failed with.
+ */
+@Value
+public class MovieLookup {
+
+    int movieId;
+    Movie movie;
+    MovieErrorResponse error;
+
+    static MovieLookup found(int movieId, Movie movie) {
+        return new MovieLookup(movieId, movie, null);
+    }
+
+    static MovieLookup failed(int movieId, MovieErrorResponse error) {
+        return new MovieLookup(movieId, null, error);
+    }
+
+    public boolean isFound() {
+        return error == null;
+    }
+
+    public boolean isNotFound() {
+        return error != null && error.getRawStatusCode() == HttpStatus.NOT_FOUND.value();
+    }
+
+    /**
+     * @return {@code true} for failures other than a 404, such as 5xx answers, timeouts or broken connections
+     */
+    public boolean isFailed() {
+        return error != null && !isNotFound();
+    }
+}
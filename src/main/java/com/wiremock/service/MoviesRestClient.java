@@ -1,144 +1,192 @@
 package com.wiremock.service;
 
 import com.wiremock.Movie;
-import com.wiremock.constants.MoviesAppConstants;
-import com.wiremock.exception.MovieErrorResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
+import com.wiremock.cache.MovieCache;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-public class MoviesRestClient {
+/**
+ * Blocking facade over {@link ReactiveMoviesRestClient}. Each call parks the caller until the response
+ * has been decoded; failures surface as {@link com.wiremock.exception.MovieErrorResponse}.
+ */
+public class MoviesRestClient implements AutoCloseable {
 
-    private static final Logger log = LoggerFactory.getLogger(MoviesRestClient.class);
-    private final WebClient webClient;
+    private static final int STREAM_BATCH_SIZE = 256;
+
+    private final ReactiveMoviesRestClient reactiveClient;
+    private final ExecutorService callExecutor;
+    private final boolean ownsCallExecutor;
 
     public MoviesRestClient(WebClient webClient) {
-        this.webClient = webClient;
+        this(new ReactiveMoviesRestClient(webClient));
+    }
+
+    public MoviesRestClient(WebClient webClient, MovieCache movieCache) {
+        this(new ReactiveMoviesRestClient(webClient, movieCache));
+    }
+
+    public MoviesRestClient(ReactiveMoviesRestClient reactiveClient) {
+        this(reactiveClient, null);
+    }
+
+    /**
+     * @param callExecutor runs the calls of {@link #submit(Function)}, left running by {@link #close()};
+     *                     {@code null} uses {@link BlockingCallExecutors#perCall(String)} owned by this client
+     */
+    MoviesRestClient(ReactiveMoviesRestClient reactiveClient, ExecutorService callExecutor) {
+        this.reactiveClient = reactiveClient;
+        this.ownsCallExecutor = callExecutor == null;
+        this.callExecutor = callExecutor != null ? callExecutor : BlockingCallExecutors.perCall("movies");
+    }
+
+    public static MoviesRestClientBuilder builder() {
+        return new MoviesRestClientBuilder();
+    }
+
+    public ReactiveMoviesRestClient reactive() {
+        return reactiveClient;
+    }
+
+    /**
+     * Blocking variant of {@link ReactiveMoviesRestClient#warmUp(WarmUpPlan)}.
+     */
+    public WarmUpReport warmUp(WarmUpPlan plan) {
+        return reactiveClient.warmUp(plan).block();
     }
 
     public List<Movie> retrieveAllMovies() {
-        try {
-            return webClient.get().uri(MoviesAppConstants.GET_ALL_MOVIES)
-                    .retrieve()
-                    .bodyToFlux(Movie.class)
-                    .collectList()
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in retriveMovieById: {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in retriveMovieById: ", ex);
-            throw new MovieErrorResponse(ex);
+        return reactiveClient.retrieveAllMovies().collectList().block();
+    }
+
+    /**
+     * Hands every movie of the catalog to {@code consumer} on the calling thread as soon as it is decoded.
+     * At most {@value #STREAM_BATCH_SIZE} decoded movies are buffered ahead of the consumer.
+     */
+    public void forEachMovie(Consumer<Movie> consumer) {
+        for (Movie movie : reactiveClient.streamAllMovies().toIterable(STREAM_BATCH_SIZE)) {
+            consumer.accept(movie);
         }
     }
 
+    /**
+     * Lazily streams the catalog. The returned stream holds an open HTTP exchange and must be closed,
+     * which cancels the download if it has not been fully consumed.
+     */
+    public Stream<Movie> streamAllMovies() {
+        return reactiveClient.streamAllMovies().toStream(STREAM_BATCH_SIZE);
+    }
+
     public Movie retrieveMovieById(int movieId) {
-        try {
-            return webClient.get().uri(MoviesAppConstants.GET_MOVIE_BY_ID, movieId)
-                    .retrieve()
-                    .bodyToMono(Movie.class)
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in retriveMovieById: {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in retriveMovieById: ", ex);
-            throw new MovieErrorResponse(ex);
-        }
+        return reactiveClient.retrieveMovieById(movieId).block();
+    }
+
+    public List<MovieLookup> retrieveMoviesByIds(Collection<Integer> movieIds) {
+        return reactiveClient.retrieveMoviesByIds(movieIds).collectList().block();
+    }
+
+    public List<MovieLookup> retrieveMoviesByIds(Collection<Integer> movieIds, int concurrency) {
+        return reactiveClient.retrieveMoviesByIds(movieIds, concurrency).collectList().block();
     }
 
     public List<Movie> retrieveMovieByName(String name) {
-        try {
-            String endpoint = UriComponentsBuilder.fromUriString(MoviesAppConstants.GET_MOVIE_BY_NAME)
-                    .queryParam("movie_name", name)
-                    .buildAndExpand()
-                    .toUriString();
-
-            return webClient.get().uri(endpoint)
-                    .retrieve()
-                    .bodyToFlux(Movie.class)
-                    .collectList()
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in retriveMovieByName: {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in retriveMovieByName: ", ex);
-            throw new MovieErrorResponse(ex);
-        }
+        return reactiveClient.retrieveMovieByName(name).collectList().block();
     }
 
     public List<Movie> retrieveMovieByYear(int year) {
-        String endpoint = UriComponentsBuilder.fromUriString(MoviesAppConstants.GET_MOVIE_BY_YEAR)
-                .queryParam("year", year)
-                .buildAndExpand()
-                .toUriString();
-
-        try {
-            return webClient.get().uri(endpoint)
-                    .retrieve()
-                    .bodyToFlux(Movie.class)
-                    .collectList()
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in retriveMovieByYear: {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in retriveMovieByYear: ", ex);
-            throw new MovieErrorResponse(ex);
-        }
+        return reactiveClient.retrieveMovieByYear(year).collectList().block();
     }
 
     public Movie addMovie(Movie movie) {
-        try {
-            return webClient.post().uri(MoviesAppConstants.POST_MOVIE)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .syncBody(movie)
-                    .retrieve()
-                    .bodyToMono(Movie.class)
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in POST Movie {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in POST Movie: ", ex);
-            throw new MovieErrorResponse(ex);
-        }
+        return reactiveClient.addMovie(movie).block();
     }
 
     public Movie updateMovie(int movieId, Movie movie) {
-        try {
-            return webClient.put().uri(MoviesAppConstants.GET_MOVIE_BY_ID, movieId)
-                    .syncBody(movie)
-                    .retrieve()
-                    .bodyToMono(Movie.class)
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in PUT Movie {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in PUT Movie: ", ex);
-            throw new MovieErrorResponse(ex);
-        }
+        return reactiveClient.updateMovie(movieId, movie).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #updateMovie(int, Movie)}, for write-behind clients built with
+     * {@link MoviesRestClientBuilder#updateCoalescing(UpdateCoalescingPolicy)}.
+     */
+    public CompletableFuture<Movie> updateMovieAsync(int movieId, Movie movie) {
+        return reactiveClient.updateMovie(movieId, movie).toFuture();
     }
 
     public String deleteMovie(int movieId) {
-        try {
-            return webClient.delete().uri(MoviesAppConstants.GET_MOVIE_BY_ID, movieId)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch (WebClientResponseException ex) {
-            log.error("WebClientResponseException in DELETE Movie {}, Status code: {}", ex.getResponseBodyAsString(), ex.getRawStatusCode());
-            throw new MovieErrorResponse(ex.getStatusText(), ex);
-        } catch (Exception ex) {
-            log.error("Exception in DELETE Movie: ", ex);
-            throw new MovieErrorResponse(ex);
+        return reactiveClient.deleteMovie(movieId).block();
+    }
+
+    /**
+     * Bulk variant of {@link #addMovie(Movie)}: pulls movies from {@code movies} only as fast as the
+     * {@code concurrency} pipelined POSTs complete. The iterator is advanced on a worker thread, so it may
+     * block; {@code progress} is called on the calling thread once per record, in completion order.
+     */
+    public IngestSummary addMovies(Iterator<Movie> movies, int concurrency, Consumer<IngestOutcome> progress) {
+        return drain(reactiveClient.addMovies(fromIterator(movies), concurrency), concurrency, progress);
+    }
+
+    /**
+     * Bulk variant of {@link #updateMovie(int, Movie)}, see {@link #addMovies(Iterator, int, Consumer)}.
+     */
+    public IngestSummary updateMovies(Iterator<Movie> movies, int concurrency, Consumer<IngestOutcome> progress) {
+        return drain(reactiveClient.updateMovies(fromIterator(movies), concurrency), concurrency, progress);
+    }
+
+    /**
+     * Runs the blocking {@code call} on the call executor, a virtual thread per call by default on Java 21.
+     * A failed call completes the future with its {@link com.wiremock.exception.MovieErrorResponse}.
+     */
+    public <T> CompletableFuture<T> submit(Function<? super MoviesRestClient, ? extends T> call) {
+        return CompletableFuture.supplyAsync(() -> call.apply(this), callExecutor);
+    }
+
+    /**
+     * Submits {@code call} once per input, all at once; the futures are in the order of {@code inputs}.
+     * Concurrency is bounded by the connection pool, not by the number of threads.
+     */
+    public <I, T> List<CompletableFuture<T>> submitAll(Collection<? extends I> inputs,
+                                                       BiFunction<? super MoviesRestClient, ? super I, ? extends T> call) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            futures.add(submit(client -> call.apply(client, input)));
+        }
+        return futures;
+    }
+
+    public ExecutorService getCallExecutor() {
+        return callExecutor;
+    }
+
+    private static Flux<Movie> fromIterator(Iterator<Movie> movies) {
+        return Flux.fromIterable(() -> movies).subscribeOn(Schedulers.elastic());
+    }
+
+    private IngestSummary drain(Flux<IngestOutcome> outcomes, int concurrency, Consumer<IngestOutcome> progress) {
+        IngestSummary summary = new IngestSummary();
+        for (IngestOutcome outcome : outcomes.toIterable(concurrency)) {
+            summary.add(outcome);
+            progress.accept(outcome);
+        }
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        if (ownsCallExecutor) {
+            callExecutor.shutdown();
         }
+        reactiveClient.close();
     }
 }
@@ -0,0 +1,462 @@
+package com.wiremock.service;
+
+import com.wiremock.cache.ConditionalResponseCache;
+import com.wiremock.cache.MovieCache;
+import com.wiremock.metrics.MoviesClientMetrics;
+import com.wiremock.metrics.TrafficRecorder;
+import com.wiremock.resilience.CircuitBreakerPolicy;
+import com.wiremock.resilience.ConcurrencyLimitPolicy;
+import com.wiremock.resilience.HedgingPolicy;
+import com.wiremock.resilience.LoadBalancer;
+import com.wiremock.resilience.LoadBalancerPolicy;
+import com.wiremock.resilience.RetryPolicy;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds movie clients that own their reactor-netty transport: a fixed connection pool, a dedicated event
+ * loop and explicit timeouts, instead of the process-wide defaults {@link WebClient#create(String)} uses.
+ * <p>
+ * Either {@link #baseUrl(String)} or {@link #webClient(WebClient)} must be set. A supplied {@code WebClient}
+ * is used as is and the transport settings of this builder are ignored.
+ */
+public class MoviesRestClientBuilder {
+
+    private String baseUrl;
+    private LoadBalancer loadBalancer;
+    private WebClient webClient;
+    private MovieCache movieCache;
+    private ConditionalResponseCache conditionalResponseCache;
+    private HedgingPolicy hedgingPolicy;
+    private CircuitBreakerPolicy circuitBreakerPolicy;
+    private RetryPolicy retryPolicy;
+    private ConcurrencyLimitPolicy readConcurrencyLimit;
+    private ConcurrencyLimitPolicy writeConcurrencyLimit;
+    private MoviesClientMetrics metrics;
+    private TrafficRecorder trafficRecorder;
+    private boolean streamingMovieDecoder;
+    private boolean acceptSmile;
+    private boolean stacklessErrors;
+    private Duration errorLogInterval = Duration.ofSeconds(1);
+    private ExecutorService callExecutor;
+    private UpdateCoalescingPolicy updateCoalescingPolicy;
+
+    private String poolName = "movies";
+    private int maxConnections = ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS;
+    private boolean compression;
+    private Duration pendingAcquireTimeout = Duration.ofMillis(ConnectionProvider.DEFAULT_POOL_ACQUIRE_TIMEOUT);
+    private Duration maxIdleTime;
+    private boolean keepAlive = true;
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout;
+    private Duration writeTimeout;
+    private int eventLoopThreads = LoopResources.DEFAULT_IO_WORKER_COUNT;
+
+    MoviesRestClientBuilder() {
+    }
+
+    public MoviesRestClientBuilder baseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+        return this;
+    }
+
+    /**
+     * Balances requests over several instances of the movie service with the default
+     * {@link LoadBalancerPolicy}, instead of a single {@link #baseUrl(String)}.
+     */
+    public MoviesRestClientBuilder baseUrls(String... baseUrls) {
+        return loadBalancer(new LoadBalancer(Arrays.asList(baseUrls), LoadBalancerPolicy.defaults()));
+    }
+
+    /**
+     * Balances requests over the instances of {@code loadBalancer}, instead of a single {@link #baseUrl(String)}.
+     * Only applies to the transport built by this builder; {@link #maxConnections(int)} is per instance.
+     */
+    public MoviesRestClientBuilder loadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+        return this;
+    }
+
+    public MoviesRestClientBuilder webClient(WebClient webClient) {
+        this.webClient = webClient;
+        return this;
+    }
+
+    public MoviesRestClientBuilder movieCache(MovieCache movieCache) {
+        this.movieCache = movieCache;
+        return this;
+    }
+
+    /**
+     * Sends GETs other than {@code streamAllMovies} as conditional requests and reuses the previously decoded
+     * result when the movie service answers {@code 304 Not Modified}. List endpoints are then read as a whole
+     * before their first movie is emitted.
+     */
+    public MoviesRestClientBuilder conditionalResponseCache(ConditionalResponseCache conditionalResponseCache) {
+        this.conditionalResponseCache = conditionalResponseCache;
+        return this;
+    }
+
+    /**
+     * Hedges {@code retrieveMovieById}, {@code retrieveMovieByName} and {@code retrieveMovieByYear}; writes and
+     * catalog downloads are never hedged.
+     */
+    public MoviesRestClientBuilder hedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+        return this;
+    }
+
+    /**
+     * Gives every endpoint its own circuit breaker; while it is open, calls fail immediately with
+     * {@link com.wiremock.exception.CircuitBreakerOpenException}.
+     */
+    public MoviesRestClientBuilder circuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) {
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+        return this;
+    }
+
+    /**
+     * Retries failed GET, PUT and DELETE calls; POSTs are never retried.
+     */
+    public MoviesRestClientBuilder retryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Caps GET calls in flight with an adaptive limit of their own, so that reads keep flowing while writes
+     * queue up behind theirs.
+     */
+    public MoviesRestClientBuilder readConcurrencyLimit(ConcurrencyLimitPolicy readConcurrencyLimit) {
+        this.readConcurrencyLimit = readConcurrencyLimit;
+        return this;
+    }
+
+    /**
+     * Caps POST, PUT and DELETE calls in flight, see {@link #readConcurrencyLimit(ConcurrencyLimitPolicy)}.
+     */
+    public MoviesRestClientBuilder writeConcurrencyLimit(ConcurrencyLimitPolicy writeConcurrencyLimit) {
+        this.writeConcurrencyLimit = writeConcurrencyLimit;
+        return this;
+    }
+
+    /**
+     * Records latency histograms and throughput counters of every exchange into {@code metrics}. Connection
+     * acquire times are only recorded for the transport built by this builder, not for a supplied
+     * {@code WebClient}.
+     */
+    public MoviesRestClientBuilder metrics(MoviesClientMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Writes every exchange to the trace of {@code trafficRecorder}, which the client does not close.
+     */
+    public MoviesRestClientBuilder trafficRecorder(TrafficRecorder trafficRecorder) {
+        this.trafficRecorder = trafficRecorder;
+        return this;
+    }
+
+    /**
+     * Decodes movies with {@link com.wiremock.codec.MovieDecoder} instead of Jackson databind, which allocates
+     * less per movie on large lists.
+     */
+    public MoviesRestClientBuilder streamingMovieDecoder(boolean streamingMovieDecoder) {
+        this.streamingMovieDecoder = streamingMovieDecoder;
+        return this;
+    }
+
+    /**
+     * Asks for single-movie and movie-list responses in the binary Smile encoding of JSON, falling back to JSON
+     * when the movie service does not offer it. Request bodies stay JSON.
+     */
+    public MoviesRestClientBuilder acceptSmile(boolean acceptSmile) {
+        this.acceptSmile = acceptSmile;
+        return this;
+    }
+
+    /**
+     * Raises {@link com.wiremock.exception.MovieErrorResponse}s without their own stack trace, which makes an
+     * error as cheap as a regular response under a burst of failures. Error statuses are raised without a cause
+     * either way, and a 404 never has a stack trace; transport failures keep theirs in the cause.
+     */
+    public MoviesRestClientBuilder stacklessErrors(boolean stacklessErrors) {
+        this.stacklessErrors = stacklessErrors;
+        return this;
+    }
+
+    /**
+     * Logs each kind of error of an operation at most once per {@code errorLogInterval}, with the number of
+     * errors left out since; defaults to one second.
+     */
+    public MoviesRestClientBuilder errorLogInterval(Duration errorLogInterval) {
+        this.errorLogInterval = errorLogInterval;
+        return this;
+    }
+
+    /**
+     * Turns {@code updateMovie} into a write-behind call: updates of the same movie made within a short window
+     * are sent as one PUT of the latest state. {@code null}, the default, sends every update right away.
+     */
+    public MoviesRestClientBuilder updateCoalescing(UpdateCoalescingPolicy updateCoalescingPolicy) {
+        this.updateCoalescingPolicy = updateCoalescingPolicy;
+        return this;
+    }
+
+    /**
+     * Runs the calls of {@link MoviesRestClient#submit} on {@code callExecutor}, which the client does not shut
+     * down. By default each call gets a virtual thread on Java 21 and a platform thread before.
+     */
+    public MoviesRestClientBuilder callExecutor(ExecutorService callExecutor) {
+        this.callExecutor = callExecutor;
+        return this;
+    }
+
+    /**
+     * Sends {@code Accept-Encoding: gzip} and inflates compressed responses as they stream in; uncompressed
+     * responses are read as before. Only applies to the transport built by this builder.
+     */
+    public MoviesRestClientBuilder compression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Name of the connection pool and prefix of the event loop threads.
+     */
+    public MoviesRestClientBuilder poolName(String poolName) {
+        this.poolName = poolName;
+        return this;
+    }
+
+    /**
+     * Upper bound of open connections per movie-service address. Requests beyond it wait for a connection
+     * to be released.
+     */
+    public MoviesRestClientBuilder maxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    /**
+     * How long a request may wait for a pooled connection before it fails.
+     */
+    public MoviesRestClientBuilder pendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+        return this;
+    }
+
+    /**
+     * Closes pooled connections that saw no traffic for this long. Only connections back in the pool are closed;
+     * one waiting for a slow response is bounded by {@link #readTimeout(Duration)} alone, and waits indefinitely
+     * without one. An idle connection is closed within twice this time of its release.
+     */
+    public MoviesRestClientBuilder maxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+        return this;
+    }
+
+    public MoviesRestClientBuilder keepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    public MoviesRestClientBuilder connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Fails an exchange when no bytes were read for this long.
+     */
+    public MoviesRestClientBuilder readTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Fails an exchange when a write did not finish within this long.
+     */
+    public MoviesRestClientBuilder writeTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+        return this;
+    }
+
+    public MoviesRestClientBuilder eventLoopThreads(int eventLoopThreads) {
+        this.eventLoopThreads = eventLoopThreads;
+        return this;
+    }
+
+    public MoviesRestClient build() {
+        return new MoviesRestClient(buildReactive(), callExecutor);
+    }
+
+    public ReactiveMoviesRestClient buildReactive() {
+        if (webClient != null) {
+            return new ReactiveMoviesRestClient(this, webClient, Disposables.never());
+        }
+        if (baseUrl != null && loadBalancer != null) {
+            throw new IllegalStateException("Either baseUrl or baseUrls must be set, not both");
+        }
+        if (baseUrl == null && loadBalancer == null) {
+            throw new IllegalStateException("Either baseUrl or webClient must be set");
+        }
+
+        ConnectionProvider connectionProvider = ConnectionProvider.fixed(poolName, maxConnections,
+                pendingAcquireTimeout.toMillis());
+        LoopResources loopResources = LoopResources.create(poolName, eventLoopThreads, true);
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(keepAlive)
+                .compress(compression)
+                .tcpConfiguration(this::configureTcp)
+                .tcpConfiguration(tcpClient -> tcpClient.runOn(loopResources));
+        if (metrics != null) {
+            httpClient = metrics.instrument(httpClient);
+        }
+
+        WebClient.Builder transport = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+        if (loadBalancer != null) {
+            transport.baseUrl(loadBalancer.getPrimaryBaseUrl()).filter(loadBalancer);
+        } else {
+            transport.baseUrl(baseUrl);
+        }
+        Disposable resources = Disposables.composite(connectionProvider, loopResources);
+        return new ReactiveMoviesRestClient(this, transport.build(), resources);
+    }
+
+    LoadBalancer getLoadBalancer() {
+        return webClient == null ? loadBalancer : null;
+    }
+
+    UpdateCoalescingPolicy getUpdateCoalescingPolicy() {
+        return updateCoalescingPolicy;
+    }
+
+    MovieCache getMovieCache() {
+        return movieCache;
+    }
+
+    ConditionalResponseCache getConditionalResponseCache() {
+        return conditionalResponseCache;
+    }
+
+    HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    ConcurrencyLimitPolicy getReadConcurrencyLimit() {
+        return readConcurrencyLimit;
+    }
+
+    ConcurrencyLimitPolicy getWriteConcurrencyLimit() {
+        return writeConcurrencyLimit;
+    }
+
+    MoviesClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    TrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
+    boolean isStreamingMovieDecoder() {
+        return streamingMovieDecoder;
+    }
+
+    boolean isAcceptSmile() {
+        return acceptSmile;
+    }
+
+    boolean isStacklessErrors() {
+        return stacklessErrors;
+    }
+
+    Duration getErrorLogInterval() {
+        return errorLogInterval;
+    }
+
+    private TcpClient configureTcp(TcpClient tcpClient) {
+        TcpClient configured = tcpClient
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive)
+                .doOnConnected(connection -> {
+                    if (readTimeout != null) {
+                        connection.addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS));
+                    }
+                    if (writeTimeout != null) {
+                        connection.addHandlerLast(new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS));
+                    }
+                });
+        if (maxIdleTime == null) {
+            return configured;
+        }
+        return configured
+                .bootstrap(bootstrap -> BootstrapHandlers.updateConfiguration(bootstrap, "movies.idle",
+                        (observer, channel) -> channel.pipeline().addFirst(new IdleConnectionCloser(maxIdleTime))))
+                .observe(IdleConnectionCloser::onStateChange);
+    }
+
+    /**
+     * Lives in the channel pipeline for the whole life of a pooled connection, unlike handlers added per
+     * exchange, and closes the channel once it has been idle for the configured time while back in the pool.
+     * A connection still waiting for its response is left to the read timeout, if any.
+     */
+    private static final class IdleConnectionCloser extends IdleStateHandler {
+
+        private volatile boolean inUse;
+
+        IdleConnectionCloser(Duration maxIdleTime) {
+            super(0, 0, maxIdleTime.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        static void onStateChange(Connection connection, ConnectionObserver.State state) {
+            IdleConnectionCloser closer = connection.channel().pipeline().get(IdleConnectionCloser.class);
+            if (closer == null) {
+                return;
+            }
+            if (state == ConnectionObserver.State.CONFIGURED || state == ConnectionObserver.State.ACQUIRED) {
+                closer.inUse = true;
+            } else if (state == ConnectionObserver.State.RELEASED) {
+                closer.inUse = false;
+            }
+        }
+
+        @Override
+        protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) {
+            if (!inUse) {
+                ctx.close();
+            }
+        }
+    }
+}
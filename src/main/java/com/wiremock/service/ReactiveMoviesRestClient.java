@@ -0,0 +1,467 @@
+package com.wiremock.service;
+
+import com.wiremock.Movie;
+import com.wiremock.cache.ConditionalResponseCache;
+import com.wiremock.cache.MovieCache;
+import com.wiremock.codec.MovieDecoder;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieNotFoundException;
+import com.wiremock.exception.MovieRequestRejectedException;
+import com.wiremock.metrics.ErrorCounters;
+import com.wiremock.metrics.MoviesClientMetrics;
+import com.wiremock.resilience.AdaptiveConcurrencyLimiter;
+import com.wiremock.resilience.CircuitBreaker;
+import com.wiremock.resilience.CircuitBreakerPolicy;
+import com.wiremock.resilience.HedgingPolicy;
+import com.wiremock.resilience.LoadBalancer;
+import com.wiremock.resilience.RetryPolicy;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking variant of {@link MoviesRestClient}. Every call returns a cold {@link Mono} or {@link Flux}
+ * and nothing is sent until it is subscribed to. Errors are signalled as {@link MovieErrorResponse}.
+ */
+public class ReactiveMoviesRestClient implements AutoCloseable {
+
+    static final int DEFAULT_BATCH_CONCURRENCY = 32;
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final List<MediaType> SMILE_OR_JSON =
+            Arrays.asList(APPLICATION_SMILE, MediaType.parseMediaType("application/json;q=0.9"));
+
+    private final WebClient webClient;
+    private final MovieCache movieCache;
+    private final ConditionalResponseCache conditionalResponseCache;
+    private final HedgingPolicy hedgingPolicy;
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+    private final RetryPolicy retryPolicy;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final MoviesClientMetrics metrics;
+    private final LoadBalancer loadBalancer;
+    private final UpdateCoalescer updateCoalescer;
+    private final ClientWarmUp warmUp;
+    private final MovieDecoder movieDecoder;
+    private final boolean acceptSmile;
+    private final MovieErrorTranslator errorTranslator;
+    private final Disposable resources;
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+
+    public ReactiveMoviesRestClient(WebClient webClient) {
+        this(webClient, null);
+    }
+
+    /**
+     * @param movieCache read-through cache for {@link #retrieveMovieById(int)}, invalidated by the write
+     *                   methods of this client; {@code null} disables caching
+     */
+    public ReactiveMoviesRestClient(WebClient webClient, MovieCache movieCache) {
+        this(new MoviesRestClientBuilder().movieCache(movieCache), webClient, Disposables.never());
+    }
+
+    ReactiveMoviesRestClient(MoviesRestClientBuilder builder, WebClient webClient, Disposable resources) {
+        this.metrics = builder.getMetrics();
+        this.loadBalancer = builder.getLoadBalancer();
+        this.movieDecoder = builder.isStreamingMovieDecoder() ? new MovieDecoder() : null;
+        this.acceptSmile = builder.isAcceptSmile();
+        this.errorTranslator = new MovieErrorTranslator(!builder.isStacklessErrors(), builder.getErrorLogInterval());
+        MovieCodecs movieCodecs = new MovieCodecs(movieDecoder);
+        WebClient.Builder configured = webClient.mutate().filter(movieCodecs);
+        if (metrics != null) {
+            configured.filter(metrics);
+        }
+        if (builder.getTrafficRecorder() != null) {
+            configured.filter(builder.getTrafficRecorder());
+        }
+        this.webClient = configured.build();
+        this.warmUp = new ClientWarmUp(this, this.webClient, movieCodecs.extend(ExchangeStrategies.withDefaults()),
+                acceptSmile
+                        ? Arrays.asList(MediaType.APPLICATION_JSON, APPLICATION_SMILE)
+                        : Collections.singletonList(MediaType.APPLICATION_JSON));
+        this.movieCache = builder.getMovieCache();
+        this.conditionalResponseCache = builder.getConditionalResponseCache();
+        this.hedgingPolicy = builder.getHedgingPolicy();
+        this.circuitBreakerPolicy = builder.getCircuitBreakerPolicy();
+        this.retryPolicy = builder.getRetryPolicy();
+        this.readLimiter = builder.getReadConcurrencyLimit() != null
+                ? new AdaptiveConcurrencyLimiter("reads", builder.getReadConcurrencyLimit()) : null;
+        this.writeLimiter = builder.getWriteConcurrencyLimit() != null
+                ? new AdaptiveConcurrencyLimiter("writes", builder.getWriteConcurrencyLimit()) : null;
+        this.updateCoalescer = builder.getUpdateCoalescingPolicy() != null
+                ? new UpdateCoalescer(builder.getUpdateCoalescingPolicy(), this::putMovie) : null;
+        this.resources = resources;
+    }
+
+    public static MoviesRestClientBuilder builder() {
+        return new MoviesRestClientBuilder();
+    }
+
+    public Flux<Movie> retrieveAllMovies() {
+        return getMany("retrieveAllMovies", MoviesAppConstants.GET_ALL_MOVIES, MoviesAppConstants.GET_ALL_MOVIES, false);
+    }
+
+    /**
+     * Streams the whole catalog element by element instead of collecting it. The server may answer with a
+     * JSON array, {@code application/stream+json} or {@code application/x-ndjson}; in every case movies are
+     * decoded as their bytes arrive and the socket is only read as fast as the subscriber requests.
+     */
+    public Flux<Movie> streamAllMovies() {
+        return callMany("streamAllMovies", MoviesAppConstants.GET_ALL_MOVIES, CallKind.READ,
+                webClient.get().uri(MoviesAppConstants.GET_ALL_MOVIES)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, "streamAllMovies")
+                        .accept(APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON, MediaType.APPLICATION_JSON)
+                        .retrieve()
+                        .onStatus(HttpStatus::isError, this::responseError)
+                        .bodyToFlux(Movie.class));
+    }
+
+    public Mono<Movie> retrieveMovieById(int movieId) {
+        if (movieCache != null) {
+            return movieCache.get(movieId, this::fetchMovieById);
+        }
+        return fetchMovieById(movieId);
+    }
+
+    private Mono<Movie> fetchMovieById(int movieId) {
+        String endpoint = MovieEndpoints.movieById(movieId);
+        Supplier<Mono<Movie>> exchange = conditionalResponseCache != null
+                ? () -> conditionalGet("retrieveMovieById", endpoint, response -> response.bodyToMono(Movie.class),
+                        Movie::copyOf)
+                : () -> webClient.get().uri(endpoint)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, "retrieveMovieById")
+                        .headers(this::acceptReadFormats)
+                        .retrieve()
+                        .onStatus(HttpStatus::isError, this::responseError)
+                        .bodyToMono(Movie.class);
+
+        return inFlightRequests.coalesce("GET " + endpoint, () -> call("retrieveMovieById",
+                MoviesAppConstants.GET_MOVIE_BY_ID, CallKind.READ,
+                hedgingPolicy != null ? hedgingPolicy.hedge(exchange) : exchange.get()))
+                // joined subscribers share the decoded movie, so each gets its own copy to modify
+                .map(Movie::copyOf);
+    }
+
+    public Flux<MovieLookup> retrieveMoviesByIds(Collection<Integer> movieIds) {
+        return retrieveMoviesByIds(movieIds, DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    /**
+     * Looks up every id with at most {@code concurrency} requests in flight. Results are emitted in the order
+     * of {@code movieIds}; a failed id yields a {@link MovieLookup} carrying its error instead of failing the
+     * whole batch, and an id answered without a movie yields a not-found lookup.
+     */
+    public Flux<MovieLookup> retrieveMoviesByIds(Collection<Integer> movieIds, int concurrency) {
+        return Flux.fromIterable(movieIds)
+                .flatMapSequential(movieId -> retrieveMovieById(movieId)
+                        .map(movie -> MovieLookup.found(movieId, movie))
+                        .switchIfEmpty(Mono.fromSupplier(() -> MovieLookup.failed(movieId,
+                                new MovieNotFoundException(HttpStatus.NOT_FOUND.getReasonPhrase()))))
+                        .onErrorResume(MovieErrorResponse.class,
+                                ex -> Mono.just(MovieLookup.failed(movieId, ex))), concurrency);
+    }
+
+    public Flux<Movie> retrieveMovieByName(String name) {
+        return getMany("retrieveMovieByName", MoviesAppConstants.GET_MOVIE_BY_NAME,
+                MovieEndpoints.moviesByName(name), true);
+    }
+
+    public Flux<Movie> retrieveMovieByYear(int year) {
+        return getMany("retrieveMovieByYear", MoviesAppConstants.GET_MOVIE_BY_YEAR,
+                MovieEndpoints.moviesByYear(year), true);
+    }
+
+    /**
+     * GETs a list of movies, sharing one exchange among all concurrent subscribers of the same endpoint; each
+     * subscriber receives its own copies of the movies.
+     * {@code hedge} is only worth it for small answers; hedging the whole catalog would double its download.
+     */
+    private Flux<Movie> getMany(String operation, String template, String endpoint, boolean hedge) {
+        Supplier<Flux<Movie>> exchange = conditionalResponseCache != null
+                ? () -> conditionalGet(operation, endpoint, response -> response.bodyToFlux(Movie.class).collectList(),
+                        ReactiveMoviesRestClient::copiesOf)
+                        .flatMapIterable(Function.identity())
+                : () -> webClient.get().uri(endpoint)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, operation)
+                        .headers(this::acceptReadFormats)
+                        .retrieve()
+                        .onStatus(HttpStatus::isError, this::responseError)
+                        .bodyToFlux(Movie.class);
+
+        return inFlightRequests.coalesceMany("GET " + endpoint, () -> callMany(operation, template, CallKind.READ,
+                hedge && hedgingPolicy != null ? hedgingPolicy.hedgeMany(exchange) : exchange.get()))
+                .map(Movie::copyOf);
+    }
+
+    public Mono<Movie> addMovie(Movie movie) {
+        return call("POST Movie", MoviesAppConstants.POST_MOVIE, CallKind.WRITE,
+                webClient.post().uri(MoviesAppConstants.POST_MOVIE)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, "addMovie")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .syncBody(movie)
+                        .retrieve()
+                        .onStatus(HttpStatus::isError, this::responseError)
+                        .bodyToMono(Movie.class))
+                .doOnNext(added -> invalidate(added.getMovie_id()));
+    }
+
+    /**
+     * With {@link UpdateCoalescingPolicy update coalescing}, the update is sent once its window closes, merged
+     * with later updates of the same movie, and the {@code Mono} completes with the result of that PUT.
+     */
+    public Mono<Movie> updateMovie(int movieId, Movie movie) {
+        return updateCoalescer != null ? updateCoalescer.update(movieId, movie) : putMovie(movieId, movie);
+    }
+
+    private Mono<Movie> putMovie(int movieId, Movie movie) {
+        return call("PUT Movie", MoviesAppConstants.GET_MOVIE_BY_ID, CallKind.IDEMPOTENT_WRITE,
+                webClient.put().uri(MoviesAppConstants.GET_MOVIE_BY_ID, movieId)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, "updateMovie")
+                        .syncBody(movie)
+                        .retrieve()
+                        .onStatus(HttpStatus::isError, this::responseError)
+                        .bodyToMono(Movie.class))
+                .doOnSuccessOrError((result, ex) -> invalidate(movieId));
+    }
+
+    public Mono<String> deleteMovie(int movieId) {
+        return call("DELETE Movie", MoviesAppConstants.GET_MOVIE_BY_ID, CallKind.IDEMPOTENT_WRITE,
+                webClient.delete().uri(MoviesAppConstants.GET_MOVIE_BY_ID, movieId)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, "deleteMovie")
+                        .retrieve()
+                        .onStatus(HttpStatus::isError, this::responseError)
+                        .bodyToMono(String.class))
+                .doOnSuccessOrError((result, ex) -> invalidate(movieId));
+    }
+
+    /**
+     * POSTs every movie of {@code movies} with at most {@code concurrency} requests in flight. Upstream is
+     * only asked for more records as requests complete, so a slow movie service slows the source down
+     * instead of letting records pile up in memory. Outcomes are emitted in completion order.
+     */
+    public Flux<IngestOutcome> addMovies(Flux<Movie> movies, int concurrency) {
+        return ingest(movies, concurrency, (index, movie) -> addMovie(movie));
+    }
+
+    /**
+     * PUTs every movie of {@code movies} to its {@code movie_id}, see {@link #addMovies(Flux, int)}.
+     */
+    public Flux<IngestOutcome> updateMovies(Flux<Movie> movies, int concurrency) {
+        return ingest(movies, concurrency, (index, movie) -> updateMovie(movie.getMovie_id(), movie));
+    }
+
+    public static Mono<IngestSummary> summarize(Flux<IngestOutcome> outcomes) {
+        return outcomes.reduceWith(IngestSummary::new, IngestSummary::add);
+    }
+
+    private Flux<IngestOutcome> ingest(Flux<Movie> movies, int concurrency,
+                                       BiFunction<Long, Movie, Mono<Movie>> write) {
+        return movies.index()
+                .flatMap(indexed -> write.apply(indexed.getT1(), indexed.getT2())
+                        .map(result -> new IngestOutcome(indexed.getT1(), indexed.getT2(), result, null))
+                        .onErrorResume(MovieErrorResponse.class,
+                                ex -> Mono.just(new IngestOutcome(indexed.getT1(), indexed.getT2(), null, ex))),
+                        concurrency);
+    }
+
+    /**
+     * @return the circuit breakers created so far, one per endpoint template of {@link MoviesAppConstants}
+     */
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableCollection(circuitBreakers.values());
+    }
+
+    /**
+     * @return the limiter of GET calls, or {@code null} when reads are not limited
+     */
+    public AdaptiveConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    /**
+     * @return the limiter of POST, PUT and DELETE calls, or {@code null} when writes are not limited
+     */
+    public AdaptiveConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    /**
+     * @return the metrics this client records into, or {@code null} when it was built without them
+     */
+    public MoviesClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Prepares the client for its first calls as described by {@code plan}, so that they are not slowed down by
+     * connection setup, codec initialization and interpreted code. Intended to run before the instance is
+     * marked ready; the returned report tells how long each step took.
+     */
+    public Mono<WarmUpReport> warmUp(WarmUpPlan plan) {
+        return warmUp.run(plan);
+    }
+
+    /**
+     * @return the balancer spreading requests over the movie service instances, or {@code null} when the client
+     * talks to a single base URL
+     */
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * @return the number of errors raised by this client by operation and kind
+     */
+    public ErrorCounters getErrorCounters() {
+        return errorTranslator.getErrorCounters();
+    }
+
+    /**
+     * Releases the connection pool and event loop when they were created by {@link MoviesRestClientBuilder};
+     * a client built around a caller-supplied {@code WebClient} leaves it untouched. Pending coalesced updates
+     * are flushed first.
+     */
+    @Override
+    public void close() {
+        try {
+            if (updateCoalescer != null) {
+                updateCoalescer.close();
+            }
+        } finally {
+            resources.dispose();
+        }
+    }
+
+    /**
+     * Applies the client's error mapping and resilience policies to one exchange. Every attempt takes a slot
+     * of the concurrency limiter of its group and passes the circuit breaker of {@code template}; only GET,
+     * PUT and DELETE calls are retried.
+     */
+    private <T> Mono<T> call(String operation, String template, CallKind kind, Mono<T> exchange) {
+        Mono<T> attempt = exchange.onErrorMap(ex -> errorTranslator.translate(operation, ex));
+        AdaptiveConcurrencyLimiter limiter = kind == CallKind.READ ? readLimiter : writeLimiter;
+        if (limiter != null) {
+            attempt = limiter.limit(attempt);
+        }
+        if (circuitBreakerPolicy != null) {
+            attempt = circuitBreaker(template).protect(attempt);
+        }
+        if (kind != CallKind.WRITE && retryPolicy != null) {
+            attempt = retryPolicy.apply(attempt);
+        }
+        return attempt.doOnError(MovieRequestRejectedException.class, ex -> errorTranslator.countRejection(operation));
+    }
+
+    private <T> Flux<T> callMany(String operation, String template, CallKind kind, Flux<T> exchange) {
+        Flux<T> attempt = exchange.onErrorMap(ex -> errorTranslator.translate(operation, ex));
+        AdaptiveConcurrencyLimiter limiter = kind == CallKind.READ ? readLimiter : writeLimiter;
+        if (limiter != null) {
+            attempt = limiter.limitMany(attempt);
+        }
+        if (circuitBreakerPolicy != null) {
+            attempt = circuitBreaker(template).protectMany(attempt);
+        }
+        if (kind != CallKind.WRITE && retryPolicy != null) {
+            attempt = retryPolicy.applyMany(attempt);
+        }
+        return attempt.doOnError(MovieRequestRejectedException.class, ex -> errorTranslator.countRejection(operation));
+    }
+
+    /**
+     * GETs {@code endpoint} with the validators of its last response, if any, and reuses that response's decoded
+     * value on {@code 304 Not Modified}. Error statuses fail like {@code retrieve()} does.
+     */
+    private <T> Mono<T> conditionalGet(String operation, String endpoint, Function<ClientResponse, Mono<T>> decode,
+                                       UnaryOperator<T> copy) {
+        return conditionalResponseCache.exchange(endpoint,
+                validators -> webClient.get().uri(endpoint)
+                        .attribute(MoviesClientMetrics.OPERATION_ATTRIBUTE, operation)
+                        .headers(validators.andThen(this::acceptReadFormats))
+                        .exchange(),
+                response -> response.rawStatusCode() >= 400
+                        ? responseError(response).flatMap(Mono::<T>error)
+                        : decode.apply(response),
+                copy);
+    }
+
+    private static List<Movie> copiesOf(List<Movie> movies) {
+        return movies.stream().map(Movie::copyOf).collect(Collectors.toList());
+    }
+
+    /**
+     * Asks for Smile when it is enabled; the server may still answer with JSON, which is decoded as usual.
+     */
+    private void acceptReadFormats(HttpHeaders headers) {
+        if (acceptSmile) {
+            headers.setAccept(SMILE_OR_JSON);
+        }
+    }
+
+    /**
+     * Fails an error response from its status alone. Unlike the error {@code retrieve()} would raise, it neither
+     * aggregates the body nor creates a {@link WebClientResponseException} as its cause; the body is drained so
+     * the connection can be reused. While the error translator logs response bodies, other statuses than
+     * {@code 404} still carry theirs.
+     */
+    private Mono<? extends Throwable> responseError(ClientResponse response) {
+        int status = response.rawStatusCode();
+        if (status != HttpStatus.NOT_FOUND.value() && errorTranslator.logsResponseBodies()) {
+            return responseException(response);
+        }
+        return response.bodyToFlux(DataBuffer.class)
+                .doOnNext(DataBufferUtils::release)
+                .then(Mono.fromSupplier(() -> errorTranslator.fromStatus(status)));
+    }
+
+    private static Mono<WebClientResponseException> responseException(ClientResponse response) {
+        HttpStatus status = HttpStatus.resolve(response.rawStatusCode());
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Charset charset = headers.getContentType() != null && headers.getContentType().getCharset() != null
+                ? headers.getContentType().getCharset() : StandardCharsets.ISO_8859_1;
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> WebClientResponseException.create(response.rawStatusCode(),
+                        status != null ? status.getReasonPhrase() : "", headers, body, charset));
+    }
+
+    private CircuitBreaker circuitBreaker(String template) {
+        return circuitBreakers.computeIfAbsent(template, key -> new CircuitBreaker(key, circuitBreakerPolicy));
+    }
+
+    private void invalidate(int movieId) {
+        if (movieCache != null) {
+            movieCache.invalidate(movieId);
+        }
+    }
+
+    private enum CallKind {
+        READ, IDEMPOTENT_WRITE, WRITE
+    }
+}
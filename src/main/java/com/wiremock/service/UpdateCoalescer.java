@@ -0,0 +1,176 @@
+package com.wiremock.service;
+
+import com.wiremock.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Merges the updates of a movie that arrive within one window into a single PUT of the latest state; every
+ * merged caller completes with the result of that PUT. At most one PUT per movie is in flight, so a movie's
+ * updates reach the service in the order they were made: updates arriving meanwhile wait for the next window
+ * after it. Cancelling a returned {@code Mono} does not withdraw its update.
+ */
+final class UpdateCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateCoalescer.class);
+
+    private final UpdateCoalescingPolicy policy;
+    private final BiFunction<Integer, Movie, Mono<Movie>> writer;
+    private final Map<Integer, Slot> slots = new HashMap<>();
+    private final MonoProcessor<Void> drained = MonoProcessor.create();
+    /** Movies with a queued batch and no PUT in flight, which the next flush would send. */
+    private int flushableMovies;
+    private Disposable scheduledFlush;
+    private boolean draining;
+
+    UpdateCoalescer(UpdateCoalescingPolicy policy, BiFunction<Integer, Movie, Mono<Movie>> writer) {
+        this.policy = policy;
+        this.writer = writer;
+    }
+
+    Mono<Movie> update(int movieId, Movie movie) {
+        return Mono.create(sink -> {
+            boolean flushNow;
+            synchronized (this) {
+                if (draining) {
+                    sink.error(new IllegalStateException("The client is closed, update of movie " + movieId + " refused"));
+                    return;
+                }
+                Slot slot = slots.computeIfAbsent(movieId, key -> new Slot());
+                if (slot.queued == null) {
+                    slot.queued = new Batch();
+                    if (slot.inFlight == null) {
+                        flushableMovies++;
+                    }
+                }
+                slot.queued.movie = movie;
+                slot.queued.waiters.add(sink);
+                flushNow = flushableMovies >= policy.getMaxPendingMovies();
+                if (!flushNow) {
+                    scheduleFlush();
+                }
+            }
+            if (flushNow) {
+                flush();
+            }
+        });
+    }
+
+    /**
+     * Flushes every pending update now and completes once the service has answered all of them; updates made
+     * after this are refused.
+     */
+    Mono<Void> drain() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                draining = true;
+            }
+            flush();
+            if (isIdle()) {
+                drained.onComplete();
+            }
+            return drained;
+        });
+    }
+
+    void close() {
+        boolean flushed = drain()
+                .thenReturn(true)
+                .timeout(policy.getDrainTimeout(), Mono.just(false))
+                .block();
+        if (!flushed) {
+            log.warn("{} movie updates not flushed within {}", pendingMovies(), policy.getDrainTimeout());
+        }
+    }
+
+    synchronized int pendingMovies() {
+        return slots.size();
+    }
+
+    private synchronized boolean isIdle() {
+        return slots.isEmpty();
+    }
+
+    private void scheduleFlush() {
+        if (scheduledFlush == null) {
+            scheduledFlush = Schedulers.parallel().schedule(this::flush, policy.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush() {
+        Map<Integer, Batch> ready = new HashMap<>();
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.dispose();
+                scheduledFlush = null;
+            }
+            for (Map.Entry<Integer, Slot> entry : slots.entrySet()) {
+                Slot slot = entry.getValue();
+                if (slot.queued != null && slot.inFlight == null) {
+                    slot.inFlight = slot.queued;
+                    slot.queued = null;
+                    flushableMovies--;
+                    ready.put(entry.getKey(), slot.inFlight);
+                }
+            }
+        }
+        ready.forEach(this::send);
+    }
+
+    private void send(int movieId, Batch batch) {
+        writer.apply(movieId, batch.movie)
+                .doOnSuccess(result -> batch.waiters.forEach(waiter -> waiter.success(result)))
+                .doOnError(ex -> batch.waiters.forEach(waiter -> waiter.error(ex)))
+                .doFinally(signal -> onFlushed(movieId))
+                .subscribe(result -> {
+                }, ex -> {
+                });
+    }
+
+    private void onFlushed(int movieId) {
+        boolean flushNow = false;
+        boolean idle = false;
+        synchronized (this) {
+            Slot slot = slots.get(movieId);
+            slot.inFlight = null;
+            if (slot.queued == null) {
+                slots.remove(movieId);
+                idle = draining && slots.isEmpty();
+            } else {
+                flushableMovies++;
+                flushNow = draining || flushableMovies >= policy.getMaxPendingMovies();
+                if (!flushNow) {
+                    scheduleFlush();
+                }
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+        if (idle) {
+            drained.onComplete();
+        }
+    }
+
+    private static final class Slot {
+        Batch inFlight;
+        Batch queued;
+    }
+
+    private static final class Batch {
+        Movie movie;
+        final List<MonoSink<Movie>> waiters = new ArrayList<>(1);
+    }
+}
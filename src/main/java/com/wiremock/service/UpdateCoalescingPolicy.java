@@ -0,0 +1,30 @@
+package com.wiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Write-behind settings of {@link ReactiveMoviesRestClient#updateMovie}: updates wait up to {@code window} to be
+ * merged with later updates of the same movie, or less once {@code maxPendingMovies} movies are waiting with no
+ * update of theirs in flight.
+ */
+@Value
+@Builder(toBuilder = true)
+public class UpdateCoalescingPolicy {
+
+    @Builder.Default
+    Duration window = Duration.ofMillis(50);
+    @Builder.Default
+    int maxPendingMovies = 256;
+    /**
+     * How long {@link ReactiveMoviesRestClient#close()} waits for pending updates to be flushed.
+     */
+    @Builder.Default
+    Duration drainTimeout = Duration.ofSeconds(10);
+
+    public static UpdateCoalescingPolicy defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.wiremock.service;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * What {@link ReactiveMoviesRestClient#warmUp(WarmUpPlan)} does before an instance takes traffic. Opening
+ * {@code connections} connections also creates the event loop and resolves the service's address; they should
+ * not exceed the client's {@code maxConnections}. Each {@code syntheticRequest} is run {@code rounds} times in
+ * turn, for instance lookups of movies known to exist, to get the request paths compiled; their failures are
+ * only counted.
+ */
+@Value
+@Builder(toBuilder = true)
+public class WarmUpPlan {
+
+    @Builder.Default
+    int connections = 4;
+    @Builder.Default
+    boolean primeCodecs = true;
+    @Singular
+    List<Function<ReactiveMoviesRestClient, Publisher<?>>> syntheticRequests;
+    @Builder.Default
+    int rounds = 20;
+
+    public static WarmUpPlan defaults() {
+        return builder().build();
+    }
+}
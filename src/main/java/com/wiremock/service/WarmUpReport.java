@@ -0,0 +1,21 @@
+package com.wiremock.service;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Outcome of {@link ReactiveMoviesRestClient#warmUp(WarmUpPlan)}. A failed connection means the request sent to
+ * open it got no response, so the service may not be reachable.
+ */
+@Value
+public class WarmUpReport {
+
+    int connections;
+    int failedConnections;
+    Duration connectDuration;
+    Duration codecDuration;
+    int syntheticRequests;
+    int failedSyntheticRequests;
+    Duration syntheticDuration;
+}
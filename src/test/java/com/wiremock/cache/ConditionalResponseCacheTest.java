@@ -0,0 +1,154 @@
+package com.wiremock.cache;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class ConditionalResponseCacheTest {
+    MoviesRestClient moviesRestClient;
+    ConditionalResponseCache conditionalResponseCache = new ConditionalResponseCache(100);
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+                .conditionalResponseCache(conditionalResponseCache)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
+    }
+
+    @Test
+    void reusesCatalogOnNotModified() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                        .withBodyFile("all-movies.json")));
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .atPriority(1)
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+
+        List<Movie> first = moviesRestClient.retrieveAllMovies();
+        List<Movie> second = moviesRestClient.retrieveAllMovies();
+
+        assertEquals(10, second.size());
+        assertEquals(first, second);
+        assertEquals(1, conditionalResponseCache.getNotModifiedCount());
+        assertEquals(1, conditionalResponseCache.getModifiedCount());
+        verify(1, getRequestedFor(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES)).withoutHeader(HttpHeaders.IF_NONE_MATCH));
+        verify(1, getRequestedFor(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\"")));
+    }
+
+    @Test
+    void servesCopiesOnNotModified() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                        .withBodyFile("movie_2.json")));
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2))
+                .atPriority(1)
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+
+        moviesRestClient.retrieveMovieById(2).setName("Changed");
+        moviesRestClient.retrieveMovieById(2).setName("Changed again");
+
+        assertEquals("Dark Knight", moviesRestClient.retrieveMovieById(2).getName());
+        assertEquals(2, conditionalResponseCache.getNotModifiedCount());
+    }
+
+    @Test
+    void replacesStoredResponseWhenModified() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT")
+                        .withBodyFile("movie_2.json")));
+
+        assertEquals("Dark Knight", moviesRestClient.retrieveMovieById(2).getName());
+
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2))
+                .withHeader(HttpHeaders.IF_MODIFIED_SINCE, equalTo("Wed, 21 Oct 2015 07:28:00 GMT"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.LAST_MODIFIED, "Thu, 22 Oct 2015 07:28:00 GMT")
+                        .withBody("{\"movie_id\":2,\"name\":\"The Dark Knight\",\"year\":2008}")));
+
+        assertEquals("The Dark Knight", moviesRestClient.retrieveMovieById(2).getName());
+        assertEquals(0, conditionalResponseCache.getNotModifiedCount());
+        assertEquals(2, conditionalResponseCache.getModifiedCount());
+    }
+
+    @Test
+    void doesNotStoreResponsesWithoutValidators() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2.json")));
+
+        moviesRestClient.retrieveMovieById(2);
+        moviesRestClient.retrieveMovieById(2);
+
+        assertEquals(0, conditionalResponseCache.size());
+        verify(0, getRequestedFor(anyUrl()).withHeader(HttpHeaders.IF_NONE_MATCH, matching(".*")));
+        verify(0, getRequestedFor(anyUrl()).withHeader(HttpHeaders.IF_MODIFIED_SINCE, matching(".*")));
+    }
+
+    @Test
+    void errorStatusesStillFail() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 100))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("404_movieId.json")));
+
+        MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class,
+                () -> moviesRestClient.retrieveMovieById(100));
+
+        assertEquals("Not Found", movieErrorResponse.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND.value(), movieErrorResponse.getRawStatusCode());
+    }
+}
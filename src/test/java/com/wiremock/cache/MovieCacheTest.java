@@ -0,0 +1,202 @@
+package com.wiremock.cache;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorKind;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MovieCacheTest {
+    MoviesRestClient moviesRestClient;
+    MovieCache movieCache;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        movieCache = new MovieCache(2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        moviesRestClient = new MoviesRestClient(WebClient.create(baseUrl), movieCache);
+
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+    }
+
+    @Test
+    void testRetrieveMovieById_ReadThrough() {
+        Movie first = moviesRestClient.retrieveMovieById(2);
+        Movie second = moviesRestClient.retrieveMovieById(2);
+
+        assertEquals(first, second);
+        verify(exactly(1), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+        assertEquals(1, movieCache.stats().getHits());
+        assertEquals(1, movieCache.stats().getMisses());
+    }
+
+    @Test
+    void testRetrieveMovieById_HitsAreCopies() {
+        moviesRestClient.retrieveMovieById(2).setName("Changed");
+        Movie hit = moviesRestClient.retrieveMovieById(2);
+        hit.setName("Changed again");
+
+        assertEquals("Dark Knight", moviesRestClient.retrieveMovieById(2).getName());
+        assertEquals(2, movieCache.stats().getHits());
+    }
+
+    @Test
+    void testRetrieveMovieById_NotFoundIsCached() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 100))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("404_movieId.json")));
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+        MovieErrorResponse firstHit = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+        MovieErrorResponse secondHit = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        verify(exactly(1), getRequestedFor(urlEqualTo(movieByIdEndpoint + 100)));
+        assertNotSame(firstHit, secondHit);
+        assertEquals(firstHit.getSuppressed().length, secondHit.getSuppressed().length);
+        assertEquals(HttpStatus.NOT_FOUND.value(), secondHit.getRawStatusCode());
+        assertEquals(MovieErrorKind.NOT_FOUND, secondHit.getKind());
+    }
+
+    @Test
+    void testRetrieveMovieById_ServerErrorIsNotCached() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 100)).willReturn(serverError()));
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 100)));
+    }
+
+    @Test
+    void testRetrieveMovieById_LeastRecentlyUsedIsEvicted() {
+        moviesRestClient.retrieveMovieById(1);
+        moviesRestClient.retrieveMovieById(2);
+        moviesRestClient.retrieveMovieById(1);
+        moviesRestClient.retrieveMovieById(3);
+        moviesRestClient.retrieveMovieById(1);
+        moviesRestClient.retrieveMovieById(2);
+
+        verify(exactly(1), getRequestedFor(urlEqualTo(movieByIdEndpoint + 1)));
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+        assertEquals(2, movieCache.stats().getEvictions());
+        assertEquals(2, movieCache.size());
+    }
+
+    @Test
+    void testRetrieveMovieById_EntryExpires() throws InterruptedException {
+        movieCache = new MovieCache(10, Duration.ofMillis(50), Duration.ofMillis(50));
+        moviesRestClient = new MoviesRestClient(WebClient.create("http://localhost:" + wireMockServer.port()), movieCache);
+
+        moviesRestClient.retrieveMovieById(2);
+        Thread.sleep(100);
+        moviesRestClient.retrieveMovieById(2);
+
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+        assertEquals(1, movieCache.stats().getExpirations());
+    }
+
+    @Test
+    void testUpdateMovie_InvalidatesEntry() {
+        stubFor(put(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(HttpStatus.OK.value())
+                        .withBodyFile("updated_movie.json")));
+
+        moviesRestClient.retrieveMovieById(2);
+        moviesRestClient.updateMovie(2, new Movie("Updated Cast", 2008));
+        moviesRestClient.retrieveMovieById(2);
+
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+        assertEquals(1, movieCache.stats().getInvalidations());
+    }
+
+    @Test
+    void testDeleteMovie_InvalidatesEntry() {
+        stubFor(delete(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withBody("Movie Deleted Successfully")));
+
+        moviesRestClient.retrieveMovieById(2);
+        moviesRestClient.deleteMovie(2);
+        moviesRestClient.retrieveMovieById(2);
+
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testAddMovie_InvalidatesCachedNotFound() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 7))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("404_movieId.json")));
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"movie_id\":7,\"name\":\"New Movie\",\"year\":2024,\"cast\":\"Cast\",\"release_date\":\"2024-06-18\"}")));
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(7));
+        moviesRestClient.addMovie(new Movie(0, "Cast", "New Movie", LocalDate.parse("2024-06-18"), 2024));
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(7));
+
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 7)));
+    }
+
+    @Test
+    void testInvalidationOnlyDropsLoadsOfTheSameMovie() {
+        MovieCache cache = new MovieCache(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        MonoProcessor<Movie> first = MonoProcessor.create();
+        MonoProcessor<Movie> second = MonoProcessor.create();
+        cache.get(1, movieId -> first).subscribe();
+        cache.get(2, movieId -> second).subscribe();
+
+        cache.invalidate(2);
+        first.onNext(new Movie(1, "Cast", "One", LocalDate.of(2001, 1, 1), 2001));
+        second.onNext(new Movie(2, "Cast", "Two", LocalDate.of(2002, 2, 2), 2002));
+
+        assertEquals(1, cache.size());
+        assertEquals("One", cache.get(1, movieId -> Mono.error(new IllegalStateException())).block().getName());
+        assertThrows(IllegalStateException.class,
+                () -> cache.get(2, movieId -> Mono.error(new IllegalStateException())).block());
+    }
+}
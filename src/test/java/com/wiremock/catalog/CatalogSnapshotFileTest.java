@@ -0,0 +1,82 @@
+package com.wiremock.catalog;
+
+import com.wiremock.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    List<Movie> movies = Arrays.asList(
+            new Movie(1, "Christian Bale, Michael Caine", "Batman Begins", LocalDate.parse("2005-06-15"), 2005),
+            new Movie(2, null, "Amélie", null, 2001));
+
+    @Test
+    void readsWhatWasWritten() throws IOException {
+        CatalogSnapshotFile snapshotFile = new CatalogSnapshotFile(directory.resolve("catalog.bin"), Duration.ofDays(1));
+
+        snapshotFile.write(movies);
+        CatalogSnapshotFile.Contents contents = snapshotFile.read();
+
+        assertEquals(movies, contents.getMovies());
+        assertFalse(Files.exists(directory.resolve("catalog.bin.tmp")));
+    }
+
+    @Test
+    void returnsNullWithoutSnapshot() throws IOException {
+        assertNull(new CatalogSnapshotFile(directory.resolve("catalog.bin"), Duration.ofDays(1)).read());
+    }
+
+    @Test
+    void refusesCorruptSnapshot() throws IOException {
+        Path path = directory.resolve("catalog.bin");
+        CatalogSnapshotFile snapshotFile = new CatalogSnapshotFile(path, Duration.ofDays(1));
+        snapshotFile.write(movies);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 3] ^= 1;
+        Files.write(path, bytes);
+
+        IOException ex = assertThrows(IOException.class, snapshotFile::read);
+        assertTrue(ex.getMessage().startsWith("Checksum mismatch"));
+    }
+
+    @Test
+    void refusesOtherVersion() throws IOException {
+        Path path = directory.resolve("catalog.bin");
+        CatalogSnapshotFile snapshotFile = new CatalogSnapshotFile(path, Duration.ofDays(1));
+        snapshotFile.write(movies);
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshotFile.VERSION + 1);
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, snapshotFile::read);
+    }
+
+    @Test
+    void refusesStaleSnapshot() throws IOException {
+        Path path = directory.resolve("catalog.bin");
+        Instant writtenAt = Instant.parse("2024-06-18T10:00:00Z");
+        new CatalogSnapshotFile(path, Duration.ofHours(1), Clock.fixed(writtenAt, ZoneOffset.UTC)).write(movies);
+
+        CatalogSnapshotFile later = new CatalogSnapshotFile(path, Duration.ofHours(1),
+                Clock.fixed(writtenAt.plus(Duration.ofMinutes(61)), ZoneOffset.UTC));
+
+        assertThrows(IOException.class, later::read);
+    }
+}
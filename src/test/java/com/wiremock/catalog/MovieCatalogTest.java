@@ -0,0 +1,210 @@
+package com.wiremock.catalog;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieNotFoundException;
+import com.wiremock.service.ReactiveMoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MovieCatalogTest {
+    ReactiveMoviesRestClient reactiveMoviesRestClient;
+    MovieCatalog movieCatalog;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(WebClient.create(baseUrl));
+        movieCatalog = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMinutes(5), Duration.ofMinutes(15));
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("all-movies.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieCatalog.close();
+    }
+
+    @Test
+    void answersQueriesLocally() {
+        movieCatalog.refresh().block();
+
+        assertEquals(10, movieCatalog.size());
+        assertEquals("The Imitation Game", movieCatalog.retrieveMovieById(9).block().getName());
+        assertThrows(MovieNotFoundException.class, () -> movieCatalog.retrieveMovieById(100).block());
+        assertEquals(ids(3, 4), ids(movieCatalog.retrieveMovieByYear(2012).collectList().block()));
+        assertThrows(MovieNotFoundException.class, () -> movieCatalog.retrieveMovieByYear(1999).collectList().block());
+        assertEquals(ids(2, 3), ids(movieCatalog.retrieveMovieByName("dARK kn").collectList().block()));
+        assertEquals(ids(5, 6, 7), ids(movieCatalog.retrieveMovieByName("Avengers:").collectList().block()));
+        assertEquals(ids(7, 9), ids(movieCatalog.retrieveMovieByName("GA").collectList().block()));
+        assertThrows(MovieNotFoundException.class, () -> movieCatalog.retrieveMovieByName("Joker").collectList().block());
+
+        assertEquals(8, movieCatalog.getLocalQueries());
+        assertEquals(0, movieCatalog.getRemoteQueries());
+        verify(1, getRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void returnsCopiesOfTheReplica() {
+        movieCatalog.refresh().block();
+
+        movieCatalog.retrieveMovieById(2).block().setName("Changed");
+
+        assertEquals("Dark Knight", movieCatalog.retrieveMovieById(2).block().getName());
+    }
+
+    @Test
+    void indexesCatalogsSpanningManyYears() {
+        List<Movie> catalog = IntStream.rangeClosed(1890, 2018)
+                .mapToObj(year -> new Movie(year, "Cast", "Movie of " + year, LocalDate.of(year, 1, 1), year))
+                .collect(Collectors.toList());
+
+        CatalogIndex index = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> new CatalogIndex(catalog));
+
+        for (int year = 1890; year <= 2018; year++) {
+            assertEquals(ids(year), ids(index.byYear(year)));
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertTrue(index.byYear(2019).isEmpty()));
+    }
+
+    @Test
+    void fallsBackToRemoteCallsUntilLoadedAndWhenStale() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .withQueryParam("year", equalTo("2012"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies_by_year_response.json")));
+        movieCatalog = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMinutes(5), Duration.ofMillis(200));
+
+        assertFalse(movieCatalog.isFresh());
+        assertFalse(movieCatalog.retrieveMovieByYear(2012).collectList().block().isEmpty());
+
+        movieCatalog.refresh().block();
+        assertTrue(movieCatalog.isFresh());
+        movieCatalog.retrieveMovieByYear(2012).collectList().block();
+
+        Thread.sleep(300);
+        assertFalse(movieCatalog.isFresh());
+        movieCatalog.retrieveMovieByYear(2012).collectList().block();
+
+        assertEquals(1, movieCatalog.getLocalQueries());
+        assertEquals(2, movieCatalog.getRemoteQueries());
+        verify(2, getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR)));
+    }
+
+    @Test
+    void refreshesInTheBackground() throws InterruptedException {
+        movieCatalog = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMillis(100), Duration.ofSeconds(5));
+        movieCatalog.start();
+        awaitSize(10);
+
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies_by_name_Dark.json")));
+        awaitSize(2);
+
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse().withStatus(HttpStatus.INTERNAL_SERVER_ERROR.value())));
+        Thread.sleep(300);
+
+        assertEquals(2, movieCatalog.size());
+        assertTrue(movieCatalog.isFresh());
+    }
+
+    @Test
+    void startsFromThePersistedSnapshot(@TempDir Path directory) throws InterruptedException {
+        CatalogSnapshotFile snapshotFile = new CatalogSnapshotFile(directory.resolve("catalog.bin"), Duration.ofDays(1));
+        try (MovieCatalog previous = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMinutes(5),
+                Duration.ofMinutes(15), snapshotFile)) {
+            previous.refresh().block();
+        }
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        movieCatalog = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMinutes(5), Duration.ofMinutes(15),
+                snapshotFile);
+
+        movieCatalog.start();
+
+        assertEquals(10, movieCatalog.size());
+        assertTrue(movieCatalog.isFresh());
+        assertEquals("Dark Knight", movieCatalog.retrieveMovieById(2).block().getName());
+        Thread.sleep(200);
+        assertEquals(10, movieCatalog.size());
+        verify(2, getRequestedFor(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES)));
+    }
+
+    @Test
+    void treatsAnOldSnapshotAsStale(@TempDir Path directory) {
+        Path path = directory.resolve("catalog.bin");
+        Clock twentyMinutesAgo = Clock.offset(Clock.systemUTC(), Duration.ofMinutes(-20));
+        try (MovieCatalog previous = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMinutes(5),
+                Duration.ofMinutes(15), new CatalogSnapshotFile(path, Duration.ofDays(1), twentyMinutesAgo))) {
+            previous.refresh().block();
+        }
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        movieCatalog = new MovieCatalog(reactiveMoviesRestClient, Duration.ofMinutes(5), Duration.ofMinutes(15),
+                new CatalogSnapshotFile(path, Duration.ofDays(1)));
+
+        movieCatalog.start();
+
+        assertEquals(10, movieCatalog.size());
+        assertFalse(movieCatalog.isFresh());
+    }
+
+    private void awaitSize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (movieCatalog.size() != size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(size, movieCatalog.size());
+    }
+
+    private static List<Integer> ids(List<Movie> movies) {
+        return movies.stream().map(Movie::getMovie_id).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(Integer... ids) {
+        return java.util.Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,123 @@
+package com.wiremock.codec;
+
+import com.wiremock.Movie;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieDecoderTest {
+
+    private static final ResolvableType MOVIE = ResolvableType.forClass(Movie.class);
+
+    MovieDecoder movieDecoder = new MovieDecoder();
+    Jackson2JsonDecoder jacksonDecoder = new Jackson2JsonDecoder(Jackson2ObjectMapperBuilder.json().build());
+    DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    @Test
+    void decodesFixturesLikeJackson() throws Exception {
+        for (String fixture : new String[]{"all-movies.json", "movie_2.json", "movies_by_name_Dark.json"}) {
+            byte[] json = Files.readAllBytes(Paths.get("src/test/resources/__files", fixture));
+
+            assertEquals(decodeWithJackson(json), decode(json, json.length), fixture);
+        }
+    }
+
+    @Test
+    void decodesAcrossBufferBoundaries() throws Exception {
+        byte[] json = Files.readAllBytes(Paths.get("src/test/resources/__files/all-movies.json"));
+
+        assertEquals(decodeWithJackson(json), decode(json, 1));
+        assertEquals(decodeWithJackson(json), decode(json, 7));
+    }
+
+    @Test
+    void decodesNdjson() {
+        byte[] ndjson = ("{\"movie_id\":1,\"name\":\"One\",\"year\":2001,\"cast\":\"A\",\"release_date\":\"2001-01-01\"}\n"
+                + "{\"movie_id\":2,\"name\":\"Two\",\"year\":2002,\"cast\":\"B\",\"release_date\":\"2002-02-02\"}\n")
+                .getBytes(StandardCharsets.UTF_8);
+
+        List<Movie> movies = decode(ndjson, 16);
+
+        assertEquals(2, movies.size());
+        assertEquals(new Movie(2, "B", "Two", LocalDate.of(2002, 2, 2), 2002), movies.get(1));
+    }
+
+    @Test
+    void coercesQuotedNumbersAndSkipsUnknownFields() {
+        byte[] json = ("{\"movie_id\":\"42\",\"year\":\"2012\",\"rating\":{\"imdb\":[8.4,{\"votes\":1}]},"
+                + "\"name\":\"The Dark Knight Rises\",\"tags\":[\"bat\"],\"cast\":null,\"release_date\":\"2012-07-20\"}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        List<Movie> movies = decode(json, json.length);
+
+        assertEquals(Collections.singletonList(
+                new Movie(42, null, "The Dark Knight Rises", LocalDate.of(2012, 7, 20), 2012)), movies);
+        assertEquals(decodeWithJackson(json), movies);
+    }
+
+    @Test
+    void sharesRepeatedCastAndDates() {
+        String movie = "{\"movie_id\":1,\"cast\":\"Christian Bale\",\"release_date\":\"2008-07-18\"}";
+        byte[] json = ("[" + movie + "," + movie + "]").getBytes(StandardCharsets.UTF_8);
+
+        List<Movie> movies = decode(json, json.length);
+
+        assertSame(movies.get(0).getCast(), movies.get(1).getCast());
+        assertSame(movies.get(0).getRelease_date(), movies.get(1).getRelease_date());
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        byte[] badDate = "{\"release_date\":\"2008-02-30\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] truncated = "[{\"movie_id\":1,".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(DecodingException.class, () -> decode(badDate, badDate.length));
+        assertThrows(DecodingException.class, () -> decode(truncated, truncated.length));
+    }
+
+    @Test
+    void onlyDecodesMovies() {
+        assertTrue(movieDecoder.canDecode(MOVIE, MediaType.APPLICATION_JSON));
+        assertTrue(movieDecoder.canDecode(MOVIE, MediaType.APPLICATION_STREAM_JSON));
+        assertFalse(movieDecoder.canDecode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON));
+        assertFalse(movieDecoder.canDecode(MOVIE, MediaType.APPLICATION_XML));
+    }
+
+    private List<Movie> decode(byte[] json, int chunkSize) {
+        return movieDecoder.decode(chunks(json, chunkSize), MOVIE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    private List<Object> decodeWithJackson(byte[] json) {
+        return jacksonDecoder.decode(chunks(json, json.length), MOVIE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .collectList()
+                .block();
+    }
+
+    private Flux<DataBuffer> chunks(byte[] json, int chunkSize) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int start = 0; start < json.length; start += chunkSize) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(chunkSize);
+            buffer.write(json, start, Math.min(chunkSize, json.length - start));
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
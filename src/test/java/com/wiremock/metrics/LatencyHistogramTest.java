@@ -0,0 +1,50 @@
+package com.wiremock.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram() {
+        HistogramSnapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getP99());
+    }
+
+    @Test
+    void bucketsCoverEveryValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value, "upper bound of " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value, "lower bound of " + value);
+            }
+        }
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.rangeClosed(1, 1000).forEach(millis -> histogram.record(TimeUnit.MILLISECONDS.toNanos(millis)));
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), snapshot.getMax());
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(500), snapshot.getP50());
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(990), snapshot.getP99());
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(999), snapshot.getP999());
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(500_500), snapshot.getMean());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.07, "expected ~" + expected + " but was " + actual);
+    }
+}
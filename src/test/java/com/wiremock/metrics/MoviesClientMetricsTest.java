@@ -0,0 +1,150 @@
+package com.wiremock.metrics;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieServerErrorException;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesClientMetricsTest {
+    MoviesRestClient moviesRestClient;
+    MoviesClientMetrics metrics = new MoviesClientMetrics();
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+                .metrics(metrics)
+                .build();
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
+    }
+
+    @Test
+    void recordsLatencyStatusAndBytesPerOperation() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + "100"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("404_movieId.json")));
+
+        for (int movieId = 1; movieId <= 5; movieId++) {
+            moviesRestClient.retrieveMovieById(movieId);
+        }
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        OperationSnapshot snapshot = metrics.snapshot("retrieveMovieById");
+        assertEquals(6, snapshot.getLatency().getCount());
+        assertEquals(6, snapshot.getConnectionAcquireTime().getCount());
+        assertEquals(Long.valueOf(5), snapshot.getStatusCounts().get(200));
+        assertEquals(Long.valueOf(1), snapshot.getStatusCounts().get(404));
+        assertEquals(0, snapshot.getInFlight());
+        assertEquals(0, snapshot.getFailedExchanges());
+        assertTrue(snapshot.getBytesIn() > 0);
+        assertEquals(0, snapshot.getBytesOut());
+        assertTrue(snapshot.getLatency().getP99() >= snapshot.getLatency().getP50());
+    }
+
+    @Test
+    void passesOnStatusesUnknownToHttpStatus() {
+        moviesRestClient.close();
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+                .maxConnections(1)
+                .metrics(metrics)
+                .build();
+        stubFor(get(urlEqualTo(movieByIdEndpoint + "599"))
+                .willReturn(aResponse().withStatus(599).withBody("Network connect timeout")));
+
+        assertThrows(MovieServerErrorException.class, () -> moviesRestClient.retrieveMovieById(599));
+        assertEquals(2, moviesRestClient.retrieveMovieById(2).getMovie_id());
+
+        OperationSnapshot snapshot = metrics.snapshot("retrieveMovieById");
+        assertEquals(Long.valueOf(1), snapshot.getStatusCounts().get(599));
+        assertEquals(2, snapshot.getLatency().getCount());
+        assertEquals(0, snapshot.getInFlight());
+    }
+
+    @Test
+    void delayedResponsesShowUpInLatency() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + "9"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(200)));
+
+        moviesRestClient.retrieveMovieById(9);
+
+        HistogramSnapshot latency = metrics.snapshot("retrieveMovieById").getLatency();
+        assertTrue(latency.getMax() >= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void countsRequestBytesOfWrites() {
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("add_movie.json")));
+
+        moviesRestClient.addMovie(new Movie(0, "Christian Bale", "New Movie", LocalDate.parse("2024-06-18"), 2024));
+
+        OperationSnapshot snapshot = metrics.snapshot("addMovie");
+        assertEquals(1, snapshot.getLatency().getCount());
+        assertTrue(snapshot.getBytesOut() > 0);
+        assertTrue(snapshot.getBytesIn() > 0);
+        assertNull(metrics.snapshot("deleteMovie"));
+    }
+
+    @Test
+    void countsExchangesWithoutResponse() {
+        wireMockServer.stop();
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(1));
+
+        OperationSnapshot snapshot = metrics.snapshot("retrieveMovieById");
+        assertEquals(1, snapshot.getFailedExchanges());
+        assertEquals(0, snapshot.getInFlight());
+        assertTrue(snapshot.getStatusCounts().isEmpty());
+    }
+}
@@ -0,0 +1,155 @@
+package com.wiremock.metrics;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieServerErrorException;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class TrafficRecorderTest {
+    MoviesRestClient moviesRestClient;
+    TrafficRecorder trafficRecorder;
+    Path trace;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) throws IOException {
+        trace = directory.resolve("movies.trace");
+        trafficRecorder = TrafficRecorder.open(trace);
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+                .trafficRecorder(trafficRecorder)
+                .build();
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
+        trafficRecorder.close();
+    }
+
+    @Test
+    void recordsEveryCall() throws IOException {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 100)).willReturn(aResponse().withStatus(HttpStatus.NOT_FOUND.value())));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_NAME))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies_by_name_Dark.json")));
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("add_movie.json")));
+
+        moviesRestClient.retrieveMovieById(2);
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+        moviesRestClient.retrieveMovieByName("The Dark");
+        moviesRestClient.addMovie(new Movie(0, "Tom Hanks, Tim Allen", "Toy Story 4", LocalDate.of(2019, 6, 20), 2019));
+        trafficRecorder.close();
+
+        List<TraceRecord> records = TrafficRecorder.read(trace);
+        assertEquals(4, records.size());
+        assertEquals(4, trafficRecorder.getRecorded());
+        assertEquals(0, trafficRecorder.getDropped());
+        assertEquals(Arrays.asList("retrieveMovieById", "retrieveMovieById", "retrieveMovieByName", "addMovie"),
+                Arrays.asList(records.get(0).getOperation(), records.get(1).getOperation(),
+                        records.get(2).getOperation(), records.get(3).getOperation()));
+        assertEquals("/movieservice/v1/movie/2", records.get(0).getUri());
+        assertEquals(200, records.get(0).getStatus());
+        assertTrue(records.get(0).getBytesIn() > 0);
+        assertEquals(0, records.get(0).getBytesOut());
+        assertEquals(404, records.get(1).getStatus());
+        assertEquals("/movieservice/v1/movieName?movie_name=The%20Dark", records.get(2).getUri());
+        assertEquals("POST", records.get(3).getMethod());
+        assertTrue(records.get(3).getBytesOut() > 0);
+        for (int i = 1; i < records.size(); i++) {
+            TraceRecord previous = records.get(i - 1);
+            assertTrue(records.get(i).getOffsetMicros() >= previous.getOffsetMicros() + previous.getDurationMicros());
+        }
+    }
+
+    @Test
+    void recordsExchangesWithoutResponse() throws IOException {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 3))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(3));
+        trafficRecorder.close();
+        moviesRestClient.retrieveMovieById(2);
+
+        List<TraceRecord> records = TrafficRecorder.read(trace);
+        assertEquals(1, records.size());
+        assertEquals(TraceRecord.NO_RESPONSE, records.get(0).getStatus());
+        assertEquals(records.get(0), TraceRecord.parse(records.get(0).format()));
+    }
+
+    @Test
+    void recordsStatusesUnknownToHttpStatus() throws IOException {
+        moviesRestClient.close();
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+                .maxConnections(1)
+                .trafficRecorder(trafficRecorder)
+                .build();
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 599))
+                .willReturn(aResponse().withStatus(599).withBody("Network connect timeout")));
+
+        assertThrows(MovieServerErrorException.class, () -> moviesRestClient.retrieveMovieById(599));
+        assertEquals(2, moviesRestClient.retrieveMovieById(2).getMovie_id());
+        trafficRecorder.close();
+
+        List<TraceRecord> records = TrafficRecorder.read(trace);
+        assertEquals(2, records.size());
+        assertEquals(599, records.get(0).getStatus());
+        assertEquals(200, records.get(1).getStatus());
+    }
+
+    @Test
+    void refusesOtherFiles(@TempDir Path directory) throws IOException {
+        Path other = Files.write(directory.resolve("other.txt"), Arrays.asList("0\t1\tretrieveMovieById"));
+
+        assertThrows(IOException.class, () -> TrafficRecorder.read(other));
+    }
+}
@@ -0,0 +1,147 @@
+package com.wiremock.resilience;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.ConcurrencyLimitExceededException;
+import com.wiremock.service.IngestOutcome;
+import com.wiremock.service.MoviesRestClient;
+import com.wiremock.service.ReactiveMoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class AdaptiveConcurrencyLimiterTest {
+    MoviesRestClient moviesRestClient;
+    String baseUrl;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("add_movie.json")
+                        .withFixedDelay(1000)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (moviesRestClient != null) {
+            moviesRestClient.close();
+        }
+    }
+
+    @Test
+    void testSlowWritesDoNotStarveReads() {
+        ConcurrencyLimitPolicy writes = ConcurrencyLimitPolicy.builder()
+                .initialLimit(2).maxLimit(2).maxQueueSize(0).build();
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .readConcurrencyLimit(ConcurrencyLimitPolicy.defaults())
+                .writeConcurrencyLimit(writes)
+                .build();
+        ReactiveMoviesRestClient reactiveClient = moviesRestClient.reactive();
+        Flux<Movie> movies = Flux.range(0, 10)
+                .map(i -> new Movie(0, "Cast", "Movie " + i, LocalDate.parse("2024-06-18"), 2024));
+
+        Mono<List<IngestOutcome>> writing = reactiveClient.addMovies(movies, 10).collectList();
+        Mono<Long> readLatency = Mono.delay(Duration.ofMillis(200))
+                .then(Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return reactiveClient.retrieveMovieById(1).map(movie -> System.nanoTime() - start);
+                }));
+        List<IngestOutcome> outcomes = Mono.zip(writing, readLatency).block().getT1();
+
+        assertEquals(2, outcomes.stream().filter(IngestOutcome::isSucceeded).count());
+        assertTrue(outcomes.stream().filter(outcome -> !outcome.isSucceeded())
+                .allMatch(outcome -> outcome.getError() instanceof ConcurrencyLimitExceededException));
+        assertEquals(8, reactiveClient.getWriteLimiter().getRejectedCount());
+        assertEquals(0, reactiveClient.getReadLimiter().getRejectedCount());
+        verify(exactly(2), postRequestedFor(urlEqualTo(MoviesAppConstants.POST_MOVIE)));
+    }
+
+    @Test
+    void testQueuedCallsWaitForAFreeSlot() {
+        ConcurrencyLimitPolicy reads = ConcurrencyLimitPolicy.builder()
+                .initialLimit(1).maxLimit(1).maxQueueSize(5).maxQueueWait(Duration.ofSeconds(5)).build();
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).readConcurrencyLimit(reads).build();
+
+        List<Movie> movies = Flux.range(1, 6)
+                .flatMap(i -> moviesRestClient.reactive().retrieveMovieById(i))
+                .collectList()
+                .block();
+
+        assertEquals(6, movies.size());
+        assertEquals(0, moviesRestClient.reactive().getReadLimiter().getInFlight());
+    }
+
+    @Test
+    void testQueuedCallTimesOut() {
+        ConcurrencyLimitPolicy writes = ConcurrencyLimitPolicy.builder()
+                .initialLimit(1).maxLimit(1).maxQueueSize(5).maxQueueWait(Duration.ofMillis(200)).build();
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).writeConcurrencyLimit(writes).build();
+        Movie movie = new Movie(0, "Cast", "Movie", LocalDate.parse("2024-06-18"), 2024);
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> Mono.zip(
+                moviesRestClient.reactive().addMovie(movie),
+                moviesRestClient.reactive().addMovie(movie)).block());
+        assertEquals(0, moviesRestClient.reactive().getWriteLimiter().getQueued());
+    }
+
+    @Test
+    void testLimitFollowsLatency() {
+        ConcurrencyLimitPolicy policy = ConcurrencyLimitPolicy.builder()
+                .initialLimit(10).minLimit(2).maxLimit(20).build();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", policy);
+
+        Flux.range(0, 200)
+                .flatMap(i -> limiter.limit(Mono.delay(Duration.ofMillis(10))), 10)
+                .blockLast();
+        int grownLimit = limiter.getLimit();
+
+        Flux.range(0, 40)
+                .flatMap(i -> limiter.limit(Mono.delay(Duration.ofMillis(100))), 10)
+                .blockLast();
+
+        assertTrue(grownLimit > 10, "limit should grow while latency is stable: " + grownLimit);
+        assertTrue(limiter.getLimit() < grownLimit, "limit should shrink once latency rises: " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
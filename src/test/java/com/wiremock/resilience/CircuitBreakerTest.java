@@ -0,0 +1,138 @@
+package com.wiremock.resilience;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.CircuitBreakerOpenException;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class CircuitBreakerTest {
+    MoviesRestClient moviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    CircuitBreakerPolicy policy = CircuitBreakerPolicy.builder()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .slowCallDuration(Duration.ofMillis(300))
+            .waitDurationInOpenState(Duration.ofMillis(500))
+            .permittedCallsInHalfOpenState(1)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).circuitBreakerPolicy(policy).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
+    }
+
+    @Test
+    void testServerErrorsOpenTheCircuit() {
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+")).willReturn(serverError()));
+
+        for (int i = 0; i < 4; i++) {
+            MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(1));
+            assertFalse(movieErrorResponse instanceof CircuitBreakerOpenException);
+        }
+        CircuitBreakerOpenException open = assertThrows(CircuitBreakerOpenException.class, () -> moviesRestClient.retrieveMovieById(1));
+
+        assertEquals(MoviesAppConstants.GET_MOVIE_BY_ID, open.getEndpoint());
+        assertEquals(CircuitBreaker.State.OPEN, moviesRestClient.reactive().getCircuitBreakers().iterator().next().getState());
+        verify(exactly(4), getRequestedFor(urlPathMatching(movieByIdEndpoint + "[0-9]+")));
+    }
+
+    @Test
+    void testCircuitClosesAfterSuccessfulTrialCall() throws InterruptedException {
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+")).willReturn(serverError()));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(1));
+        }
+        assertThrows(CircuitBreakerOpenException.class, () -> moviesRestClient.retrieveMovieById(1));
+
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+        Thread.sleep(600);
+
+        assertEquals(1, moviesRestClient.retrieveMovieById(1).getMovie_id());
+        assertEquals(CircuitBreaker.State.CLOSED, moviesRestClient.reactive().getCircuitBreakers().iterator().next().getState());
+    }
+
+    @Test
+    void testNotFoundDoesNotOpenTheCircuit() {
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse().withStatus(HttpStatus.NOT_FOUND.value()).withBodyFile("404_movieId.json")));
+
+        for (int i = 0; i < 10; i++) {
+            MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(1));
+            assertFalse(movieErrorResponse instanceof CircuitBreakerOpenException);
+        }
+        verify(exactly(10), getRequestedFor(urlPathMatching(movieByIdEndpoint + "[0-9]+")));
+    }
+
+    @Test
+    void testSlowCallsOpenTheCircuit() {
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .willReturn(aResponse().withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("movies_by_year_response.json")
+                        .withUniformRandomDelay(300, 400)));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(2, moviesRestClient.retrieveMovieByYear(2012).size());
+        }
+
+        long start = System.nanoTime();
+        assertThrows(CircuitBreakerOpenException.class, () -> moviesRestClient.retrieveMovieByYear(2012));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 100, "an open circuit should fail fast");
+    }
+
+    @Test
+    void testCircuitsAreTrackedPerEndpoint() {
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+")).willReturn(serverError()));
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .willReturn(aResponse().withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("movies_by_year_response.json")));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(1));
+        }
+
+        assertEquals(2, moviesRestClient.retrieveMovieByYear(2012).size());
+    }
+}
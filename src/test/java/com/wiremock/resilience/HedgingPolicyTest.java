@@ -0,0 +1,136 @@
+package com.wiremock.resilience;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.service.MoviesRestClient;
+import com.wiremock.service.WarmUpPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class HedgingPolicyTest {
+    MoviesRestClient moviesRestClient;
+    String baseUrl;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2)).inScenario("slow instance")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(3000))
+                .willSetStateTo("fast instance"));
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2)).inScenario("slow instance")
+                .whenScenarioStateIs("fast instance")
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
+    }
+
+    @Test
+    void testRetrieveMovieById_SlowResponseIsHedged() {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.fixedDelay(Duration.ofMillis(100));
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).hedgingPolicy(hedgingPolicy).build();
+        moviesRestClient.warmUp(WarmUpPlan.defaults());
+
+        long start = System.currentTimeMillis();
+        assertEquals(2, moviesRestClient.retrieveMovieById(2).getMovie_id());
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < 3000, "the hedged request should win over the slow one");
+        assertEquals(1, hedgingPolicy.getHedgeCount());
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testRetrieveMovieById_FailedHedgeFallsBackToTheSlowRequest() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 3)).inScenario("failing hedge")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(800))
+                .willSetStateTo("failing instance"));
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 3)).inScenario("failing hedge")
+                .whenScenarioStateIs("failing instance")
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        HedgingPolicy hedgingPolicy = HedgingPolicy.fixedDelay(Duration.ofMillis(100));
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).hedgingPolicy(hedgingPolicy).build();
+
+        assertEquals(3, moviesRestClient.retrieveMovieById(3).getMovie_id());
+
+        assertEquals(1, hedgingPolicy.getHedgeCount());
+        verify(exactly(2), getRequestedFor(urlEqualTo(movieByIdEndpoint + 3)));
+    }
+
+    @Test
+    void testRetrieveMovieById_NoHedgeWithoutBudget() {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.fixedDelay(Duration.ofMillis(100)).withBudget(0, 0);
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).hedgingPolicy(hedgingPolicy).build();
+
+        long start = System.currentTimeMillis();
+        moviesRestClient.retrieveMovieById(2);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed >= 3000);
+        assertEquals(0, hedgingPolicy.getHedgeCount());
+        verify(exactly(1), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testRetrieveMovieByName_HedgesStayWithinBudget() {
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_NAME))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_by_name_template.json")
+                        .withUniformRandomDelay(0, 200)));
+        HedgingPolicy hedgingPolicy = HedgingPolicy.percentile(90, Duration.ofMillis(50)).withBudget(10, 2);
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).hedgingPolicy(hedgingPolicy).build();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2, moviesRestClient.retrieveMovieByName("Dark").size());
+        }
+
+        assertEquals(100, hedgingPolicy.getRequestCount());
+        assertTrue(hedgingPolicy.getHedgeCount() <= 100 * 0.1 + 2, "hedges: " + hedgingPolicy.getHedgeCount());
+        assertTrue(hedgingPolicy.currentDelay().toMillis() > 50, "delay should follow observed latency");
+    }
+}
@@ -0,0 +1,163 @@
+package com.wiremock.resilience;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadBalancerTest {
+    MoviesRestClient moviesRestClient;
+    List<WireMockServer> servers = new ArrayList<>();
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        for (int delay : new int[]{0, 100, 300}) {
+            WireMockServer server = new WireMockServer(wireMockConfig().dynamicPort()
+                    .extensions(new ResponseTemplateTransformer(true)));
+            server.start();
+            stubMovie(server, delay);
+            servers.add(server);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (moviesRestClient != null) {
+            moviesRestClient.close();
+        }
+        servers.forEach(WireMockServer::stop);
+    }
+
+    @Test
+    void prefersTheFastestInstance() {
+        moviesRestClient = MoviesRestClient.builder()
+                .loadBalancer(new LoadBalancer(baseUrls(), LoadBalancerPolicy.defaults()))
+                .build();
+
+        List<Movie> movies = Flux.range(1, 90)
+                .flatMap(i -> moviesRestClient.reactive().retrieveMovieById(i), 4)
+                .collectList()
+                .block();
+
+        assertEquals(90, movies.size());
+        assertEquals(90, requests(0) + requests(1) + requests(2));
+        assertTrue(requests(0) > requests(1) && requests(1) > requests(2), "fast " + requests(0) + ", slow "
+                + requests(1) + ", slowest " + requests(2));
+        assertEquals(90, moviesRestClient.reactive().getLoadBalancer().snapshot().stream()
+                .mapToLong(LoadBalancer.InstanceSnapshot::getRequests).sum());
+    }
+
+    @Test
+    void ejectsAndReadmitsFailingInstance() throws InterruptedException {
+        WireMockServer failing = servers.get(0);
+        failing.stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        LoadBalancerPolicy policy = LoadBalancerPolicy.builder()
+                .consecutiveFailuresToEject(2)
+                .ejectionDuration(Duration.ofSeconds(2))
+                .build();
+        moviesRestClient = MoviesRestClient.builder()
+                .loadBalancer(new LoadBalancer(Arrays.asList(baseUrl(0), baseUrl(1)), policy))
+                .build();
+
+        int failures = callTenTimes();
+
+        assertEquals(2, failures);
+        assertEquals(2, requests(0));
+        assertTrue(moviesRestClient.reactive().getLoadBalancer().snapshot().get(0).isEjected());
+
+        stubMovie(failing, 0);
+        Thread.sleep(2100);
+
+        assertEquals(0, callTenTimes());
+        assertTrue(requests(0) > 2);
+        assertFalse(moviesRestClient.reactive().getLoadBalancer().snapshot().get(0).isEjected());
+    }
+
+    @Test
+    void probesReadmittedInstanceWithOneRequestAtATime() throws InterruptedException {
+        WireMockServer failing = servers.get(0);
+        failing.stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+        LoadBalancerPolicy policy = LoadBalancerPolicy.builder()
+                .consecutiveFailuresToEject(2)
+                .ejectionDuration(Duration.ofSeconds(2))
+                .build();
+        // a cold first exchange would look slower than the failing instance and keep traffic away from it
+        MoviesRestClient warmUp = MoviesRestClient.builder().baseUrl(baseUrl(1)).build();
+        warmUp.retrieveMovieById(1);
+        warmUp.close();
+        moviesRestClient = MoviesRestClient.builder()
+                .loadBalancer(new LoadBalancer(Arrays.asList(baseUrl(0), baseUrl(1)), policy))
+                .build();
+        for (int i = 1; i <= 10 && !moviesRestClient.reactive().getLoadBalancer().snapshot().get(0).isEjected(); i++) {
+            moviesRestClient.reactive().retrieveMovieById(i).onErrorResume(MovieErrorResponse.class, ex -> Mono.empty())
+                    .block();
+        }
+        assertEquals(2, requests(0));
+
+        stubMovie(failing, 300);
+        Thread.sleep(2100);
+        Flux.range(1, 8)
+                .flatMap(i -> moviesRestClient.reactive().retrieveMovieById(i), 8)
+                .blockLast();
+
+        assertEquals(3, requests(0), "only the probe should reach the re-admitted instance");
+        assertFalse(moviesRestClient.reactive().getLoadBalancer().snapshot().get(0).isEjected());
+    }
+
+    private int callTenTimes() {
+        int failures = 0;
+        for (int i = 1; i <= 10; i++) {
+            try {
+                moviesRestClient.retrieveMovieById(i % 10);
+            } catch (MovieErrorResponse ex) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private void stubMovie(WireMockServer server, int delay) {
+        server.stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(delay)));
+    }
+
+    private List<String> baseUrls() {
+        return servers.stream().map(server -> "http://localhost:" + server.port()).collect(Collectors.toList());
+    }
+
+    private String baseUrl(int server) {
+        return baseUrls().get(server);
+    }
+
+    private int requests(int server) {
+        return servers.get(server).countRequestsMatching(getRequestedFor(anyUrl()).build()).getCount();
+    }
+}
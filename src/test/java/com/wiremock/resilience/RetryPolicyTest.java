@@ -0,0 +1,125 @@
+package com.wiremock.resilience;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class RetryPolicyTest {
+    MoviesRestClient moviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    RetryPolicy retryPolicy = RetryPolicy.builder()
+            .maxRetries(2)
+            .initialBackoff(Duration.ofMillis(50))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        moviesRestClient = MoviesRestClient.builder().baseUrl(baseUrl).retryPolicy(retryPolicy).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
+    }
+
+    @Test
+    void testRetrieveMovieById_RecoversAfterServerErrors() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2)).inScenario("recovering")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(serviceUnavailable())
+                .willSetStateTo("still failing"));
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2)).inScenario("recovering")
+                .whenScenarioStateIs("still failing")
+                .willReturn(serviceUnavailable())
+                .willSetStateTo("recovered"));
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2)).inScenario("recovering")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+
+        assertEquals(2, moviesRestClient.retrieveMovieById(2).getMovie_id());
+        verify(exactly(3), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testRetrieveMovieById_GivesUpAfterMaxRetries() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2)).willReturn(serverError()));
+
+        MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(2));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), movieErrorResponse.getRawStatusCode());
+        verify(exactly(3), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testRetrieveMovieById_NotFoundIsNotRetried() {
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 2))
+                .willReturn(aResponse().withStatus(HttpStatus.NOT_FOUND.value()).withBodyFile("404_movieId.json")));
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(2));
+        verify(exactly(1), getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testAddMovie_IsNotRetried() {
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE)).willReturn(serverError()));
+
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.addMovie(
+                new Movie(0, "Cast", "New Movie", LocalDate.parse("2024-06-18"), 2024)));
+        verify(exactly(1), postRequestedFor(urlEqualTo(MoviesAppConstants.POST_MOVIE)));
+    }
+
+    @Test
+    void testBackoffGrowsExponentiallyWithJitter() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(350))
+                .jitter(0.5)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            long first = policy.backoff(0).toMillis();
+            long second = policy.backoff(1).toMillis();
+            long capped = policy.backoff(5).toMillis();
+            assertTrue(first >= 50 && first <= 100, "first: " + first);
+            assertTrue(second >= 100 && second <= 200, "second: " + second);
+            assertTrue(capped >= 175 && capped <= 350, "capped: " + capped);
+        }
+    }
+}
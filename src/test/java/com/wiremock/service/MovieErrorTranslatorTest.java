@@ -0,0 +1,101 @@
+package com.wiremock.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.wiremock.exception.MovieConnectionException;
+import com.wiremock.exception.MovieErrorKind;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieNotFoundException;
+import com.wiremock.exception.MovieServerErrorException;
+import com.wiremock.exception.MovieTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.PrematureCloseException;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieErrorTranslatorTest {
+
+    MovieErrorTranslator translator = new MovieErrorTranslator(false, Duration.ofSeconds(1));
+
+    @Test
+    void testTranslateResponseStatus() {
+        MovieErrorResponse notFound = translator.translate("retrieveMovieById", responseException(404, "Not Found"));
+        MovieErrorResponse serverError = translator.translate("retrieveMovieById", responseException(503, "Service Unavailable"));
+
+        assertTrue(notFound instanceof MovieNotFoundException);
+        assertEquals("Not Found", notFound.getMessage());
+        assertEquals(404, notFound.getRawStatusCode());
+        assertTrue(serverError instanceof MovieServerErrorException);
+        assertEquals(MovieErrorKind.SERVER_ERROR, serverError.getKind());
+        assertEquals(MovieErrorKind.CLIENT_ERROR, translator.translate("addMovie", responseException(400, "Bad Request")).getKind());
+    }
+
+    @Test
+    void testTranslateTransportFailure() {
+        assertTrue(translator.translate("retrieveMovieById", new RuntimeException(new TimeoutException())) instanceof MovieTimeoutException);
+        assertTrue(translator.translate("retrieveMovieById", new ConnectException("Connection refused")) instanceof MovieConnectionException);
+
+        MovieErrorResponse prematureClose = translator.translate("retrieveMovieById",
+                PrematureCloseException.BEFORE_RESPONSE);
+        assertEquals(MovieErrorKind.CONNECTION, prematureClose.getKind());
+        assertEquals("reactor.netty.http.client.PrematureCloseException: Connection prematurely closed BEFORE response",
+                prematureClose.getMessage());
+        assertEquals(MovieErrorKind.OTHER, translator.translate("retrieveMovieById", new IllegalStateException()).getKind());
+        assertEquals(MovieErrorKind.OTHER, translator.translate("retrieveMovieById",
+                new DecodingException("JSON decoding error", new JsonParseException(null, "Unexpected character"))).getKind());
+    }
+
+    @Test
+    void testStacklessErrors() {
+        MovieErrorResponse stackless = translator.translate("retrieveMovieById", responseException(404, "Not Found"));
+        MovieErrorResponse withStack = new MovieErrorTranslator(true, Duration.ofSeconds(1))
+                .translate("retrieveMovieById", responseException(404, "Not Found"));
+
+        assertEquals(0, stackless.getStackTrace().length);
+        assertTrue(withStack.getStackTrace().length > 0);
+    }
+
+    @Test
+    void testErrorsFromStatus() {
+        MovieErrorResponse notFound = translator.fromStatus(404);
+        MovieErrorResponse badRequest = translator.fromStatus(400);
+        MovieErrorResponse unknown = translator.fromStatus(599);
+        MovieErrorResponse withStack = new MovieErrorTranslator(true, Duration.ofSeconds(1)).fromStatus(503);
+
+        assertEquals(MovieErrorKind.NOT_FOUND, notFound.getKind());
+        assertEquals(MovieErrorKind.CLIENT_ERROR, badRequest.getKind());
+        assertEquals("Bad Request", badRequest.getMessage());
+        assertEquals(MovieErrorKind.SERVER_ERROR, unknown.getKind());
+        assertEquals(599, unknown.getRawStatusCode());
+        assertNull(badRequest.getCause());
+        assertEquals(0, badRequest.getStackTrace().length);
+        assertTrue(withStack.getStackTrace().length > 0);
+        assertSame(withStack, translator.translate("retrieveMovieById", withStack));
+    }
+
+    @Test
+    void testCountsByOperationAndKind() {
+        for (int i = 0; i < 100; i++) {
+            translator.translate("retrieveMovieByYear", responseException(500, "Internal Server Error"));
+        }
+        translator.translate("retrieveMovieById", responseException(404, "Not Found"));
+        translator.countRejection("retrieveMovieById");
+
+        assertEquals(100, translator.getErrorCounters().get("retrieveMovieByYear", MovieErrorKind.SERVER_ERROR));
+        assertEquals(1, translator.getErrorCounters().get("retrieveMovieById", MovieErrorKind.NOT_FOUND));
+        assertEquals(1, translator.getErrorCounters().get("retrieveMovieById", MovieErrorKind.REJECTED));
+        assertEquals(0, translator.getErrorCounters().get("retrieveMovieById", MovieErrorKind.TIMEOUT));
+        assertEquals(2, translator.getErrorCounters().snapshot().get("retrieveMovieById").size());
+    }
+
+    private static WebClientResponseException responseException(int status, String reason) {
+        return WebClientResponseException.create(status, reason, HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+    }
+}
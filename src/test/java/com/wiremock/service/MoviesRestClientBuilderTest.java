@@ -0,0 +1,258 @@
+package com.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientBuilderTest {
+    MoviesRestClient moviesRestClient;
+    String baseUrl;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_NAME))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies_by_name_Dark.json")));
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (moviesRestClient != null) {
+            moviesRestClient.close();
+        }
+    }
+
+    @Test
+    void testReadTimeoutAppliesToReusedConnection() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .maxConnections(1)
+                .readTimeout(Duration.ofMillis(500))
+                .build();
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 3))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(1500)));
+
+        assertEquals(2, moviesRestClient.retrieveMovieById(2).getMovie_id());
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(3));
+        assertEquals(1, moviesRestClient.retrieveMovieById(1).getMovie_id());
+    }
+
+    @Test
+    void testPendingAcquireTimeout() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .maxConnections(1)
+                .pendingAcquireTimeout(Duration.ofMillis(200))
+                .build();
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 3))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(1000)));
+        ReactiveMoviesRestClient reactiveClient = moviesRestClient.reactive();
+
+        MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class, () -> Mono.zip(
+                reactiveClient.retrieveMovieById(3),
+                reactiveClient.retrieveMovieById(2)).block());
+        assertTrue(movieErrorResponse.getCause() instanceof TimeoutException);
+    }
+
+    @Test
+    void testClientWithIdleEviction() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .maxConnections(4)
+                .maxIdleTime(Duration.ofMillis(200))
+                .keepAlive(true)
+                .connectTimeout(Duration.ofSeconds(1))
+                .readTimeout(Duration.ofMillis(100))
+                .writeTimeout(Duration.ofSeconds(1))
+                .eventLoopThreads(2)
+                .build();
+
+        Movie first = moviesRestClient.retrieveMovieById(2);
+        Movie afterEviction = Mono.delay(Duration.ofMillis(400))
+                .then(moviesRestClient.reactive().retrieveMovieById(2))
+                .block();
+
+        assertEquals(first, afterEviction);
+    }
+
+    @Test
+    void testIdleEvictionKeepsPendingExchanges() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .maxIdleTime(Duration.ofMillis(200))
+                .build();
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 3))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(600)));
+
+        Movie movie = moviesRestClient.retrieveMovieById(3);
+
+        assertEquals(3, movie.getMovie_id());
+    }
+
+    @Test
+    void testSubmitAll() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .maxConnections(50)
+                .build();
+        stubFor(get(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(500)));
+        stubFor(get(urlEqualTo(movieByIdEndpoint + 100)).willReturn(aResponse().withStatus(HttpStatus.NOT_FOUND.value())));
+        List<Integer> movieIds = IntStream.rangeClosed(51, 100).boxed().collect(Collectors.toList());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Movie>> movies = moviesRestClient.submitAll(movieIds, MoviesRestClient::retrieveMovieById);
+        CompletableFuture.allOf(movies.toArray(new CompletableFuture<?>[0])).exceptionally(ex -> null).join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(51, movies.get(0).join().getMovie_id());
+        CompletionException failure = assertThrows(CompletionException.class, () -> movies.get(49).join());
+        assertTrue(failure.getCause() instanceof MovieErrorResponse);
+        assertTrue(elapsedMillis < 10 * 500, "blocking calls should run side by side: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testWarmUp() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .maxConnections(4)
+                .acceptSmile(true)
+                .build();
+        WarmUpPlan plan = WarmUpPlan.builder()
+                .connections(3)
+                .syntheticRequest(client -> client.retrieveMovieById(2))
+                .syntheticRequest(client -> client.retrieveMovieById(100))
+                .rounds(5)
+                .build();
+
+        WarmUpReport report = moviesRestClient.warmUp(plan);
+
+        assertEquals(0, report.getFailedConnections());
+        assertEquals(10, report.getSyntheticRequests());
+        assertEquals(5, report.getFailedSyntheticRequests());
+        assertNotNull(report.getCodecDuration());
+        verify(3, headRequestedFor(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES)));
+        verify(5, getRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+    }
+
+    @Test
+    void testWarmUp_ServiceUnreachable() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl("http://localhost:1")
+                .build();
+
+        WarmUpReport report = moviesRestClient.warmUp(WarmUpPlan.defaults());
+
+        assertEquals(4, report.getConnections());
+        assertEquals(4, report.getFailedConnections());
+    }
+
+    @Test
+    void testCompression() {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .compression(true)
+                .build();
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("all-movies.json")));
+
+        List<Movie> movies = moviesRestClient.retrieveAllMovies();
+
+        assertEquals(10, movies.size());
+        verify(getRequestedFor(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, containing("gzip")));
+    }
+
+    @Test
+    void testAcceptSmile() throws Exception {
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .acceptSmile(true)
+                .build();
+        List<Movie> expected;
+        try (MoviesRestClient jsonClient = MoviesRestClient.builder().baseUrl(baseUrl).build()) {
+            expected = jsonClient.retrieveMovieByName("Dark");
+        }
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_NAME))
+                .withHeader(HttpHeaders.ACCEPT, containing("application/x-jackson-smile"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile")
+                        .withBody(Jackson2ObjectMapperBuilder.smile().build().writeValueAsBytes(expected))));
+
+        assertEquals(expected, moviesRestClient.retrieveMovieByName("Dark"));
+        assertEquals(2, moviesRestClient.retrieveMovieById(2).getMovie_id());
+        verify(2, getRequestedFor(anyUrl()).withHeader(HttpHeaders.ACCEPT, containing("application/x-jackson-smile")));
+    }
+
+    @Test
+    void testBuildWithoutBaseUrl() {
+        assertThrows(IllegalStateException.class, () -> MoviesRestClient.builder().build());
+    }
+}
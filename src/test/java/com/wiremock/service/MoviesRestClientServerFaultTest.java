@@ -10,27 +10,24 @@ import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemp
 import com.github.tomakehurst.wiremock.http.Fault;
 import com.wiremock.constants.MoviesAppConstants;
 import com.wiremock.exception.MovieErrorResponse;
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import com.wiremock.exception.MovieServerErrorException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
-import reactor.netty.tcp.TcpClient;
+
+import java.time.Duration;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(WireMockExtension.class)
 public class MoviesRestClientServerFaultTest {
     MoviesRestClient moviesRestClient;
-    WebClient webClient;
 
     @InjectServer
     WireMockServer wireMockServer;
@@ -39,22 +36,22 @@ public class MoviesRestClientServerFaultTest {
     Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
             .extensions(new ResponseTemplateTransformer(true));
 
-    TcpClient tcpClient = TcpClient.create().option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
-            .doOnConnected(connection -> {
-                connection
-                        .addHandlerLast(new ReadTimeoutHandler(5))
-                        .addHandlerLast(new WriteTimeoutHandler(5));
-            });
-
     @BeforeEach
     void setUp() {
         int port = wireMockServer.port();
         String baseUrl = String.format("http://localhost:%s", port);
         System.out.println("baseUrl : " + baseUrl);
-        //webClient = WebClient.create(baseUrl);
-        webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(HttpClient.from(tcpClient)))
-                .baseUrl(baseUrl).build();
-        moviesRestClient = new MoviesRestClient(webClient);
+        moviesRestClient = MoviesRestClient.builder()
+                .baseUrl(baseUrl)
+                .connectTimeout(Duration.ofMillis(5000))
+                .readTimeout(Duration.ofSeconds(5))
+                .writeTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesRestClient.close();
     }
 
     @Test
@@ -73,8 +70,10 @@ public class MoviesRestClientServerFaultTest {
                         .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())
                         .withBody("Service Unavailable")));
 
-        MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveAllMovies());
+        MovieErrorResponse movieErrorResponse = assertThrows(MovieServerErrorException.class, () -> moviesRestClient.retrieveAllMovies());
         assertEquals("Service Unavailable", movieErrorResponse.getMessage());
+        assertEquals(503, movieErrorResponse.getRawStatusCode());
+        assertNull(movieErrorResponse.getCause());
     }
 
     @Test
@@ -83,7 +82,7 @@ public class MoviesRestClientServerFaultTest {
                 .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
 
         MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveAllMovies());
-        assertEquals("reactor.core.Exceptions$ReactiveException: reactor.netty.http.client.PrematureCloseException: Connection prematurely closed BEFORE response",
+        assertEquals("reactor.netty.http.client.PrematureCloseException: Connection prematurely closed BEFORE response",
                 movieErrorResponse.getMessage());
     }
 
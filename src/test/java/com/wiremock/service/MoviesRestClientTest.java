@@ -9,7 +9,9 @@ import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.wiremock.Movie;
 import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorKind;
 import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieNotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,7 +22,12 @@ import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
@@ -178,6 +185,39 @@ public class MoviesRestClientTest {
         assertEquals(newMovie, addedMovie);
     }
 
+    @Test
+    void testAddMovies_Bulk() {
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("add_movie.json")
+                        .withFixedDelay(50)));
+        stubFor(post(urlEqualTo(MoviesAppConstants.POST_MOVIE))
+                .withRequestBody(matchingJsonPath("$.name", equalTo("Movie 13")))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(HttpStatus.BAD_REQUEST.value())
+                        .withBodyFile("400_invalid_input.json")));
+        List<Movie> movies = IntStream.range(0, 200)
+                .mapToObj(i -> new Movie(0, "Cast", "Movie " + i, LocalDate.parse("2024-06-18"), 2024))
+                .collect(Collectors.toList());
+        AtomicInteger progress = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        IngestSummary summary = moviesRestClient.addMovies(movies.iterator(), 20, outcome -> progress.incrementAndGet());
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(200, summary.getTotal());
+        assertEquals(199, summary.getSucceeded());
+        assertEquals(1, summary.getFailed());
+        assertEquals(13, summary.getFailures().get(0).getIndex());
+        assertTrue(summary.getFailures().get(0).getReason().startsWith("400"));
+        assertEquals(200, progress.get());
+        assertTrue(elapsed < 200 * 50, "POSTs should be pipelined");
+        verify(exactly(200), postRequestedFor(urlEqualTo(MoviesAppConstants.POST_MOVIE)));
+    }
+
     @Test
     void testAddNewMovieWithoutName_BadRequest() {
 //        List<Movie> moviesBeforeAdd = moviesRestClient.retrieveAllMovies();
@@ -209,6 +249,48 @@ public class MoviesRestClientTest {
         assertFalse(movieList.isEmpty());
     }
 
+    @Test
+    void testForEachMovie_LargeCatalog() {
+        int catalogSize = 100_000;
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 1; i <= catalogSize; i++) {
+            if (i > 1) {
+                body.append(',');
+            }
+            body.append("{\"movie_id\":").append(i).append(",\"name\":\"Movie ").append(i)
+                    .append("\",\"year\":2012,\"cast\":\"Christian Bale, Heath Ledger , Michael Caine\",\"release_date\":\"2012-07-20\"}");
+        }
+        body.append(']');
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBody(body.toString())));
+
+        AtomicInteger count = new AtomicInteger();
+        AtomicInteger lastId = new AtomicInteger();
+        moviesRestClient.forEachMovie(movie -> {
+            count.incrementAndGet();
+            lastId.set(movie.getMovie_id());
+        });
+
+        assertEquals(catalogSize, count.get());
+        assertEquals(catalogSize, lastId.get());
+    }
+
+    @Test
+    void testStreamAllMovies() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("all-movies.json")));
+
+        try (Stream<Movie> movies = moviesRestClient.streamAllMovies()) {
+            assertTrue(movies.anyMatch(movie -> movie.getName().equals("Dark Knight")));
+        }
+    }
+
     @Test
     void testRetrieveMovieById() {
         LocalDate date = LocalDate.parse("2008-07-18");
@@ -241,7 +323,77 @@ public class MoviesRestClientTest {
                 .withStatus(HttpStatus.NOT_FOUND.value())
                 .withBodyFile("404_movieId.json")));
 
-        Assertions.assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById((maxId + 1)));
+        MovieErrorResponse notFound = Assertions.assertThrows(MovieErrorResponse.class,
+                () -> moviesRestClient.retrieveMovieById((maxId + 1)));
+        assertTrue(notFound instanceof MovieNotFoundException);
+        assertEquals(404, notFound.getRawStatusCode());
+        assertNull(notFound.getCause());
+        assertEquals(0, notFound.getStackTrace().length);
+        assertEquals(1, moviesRestClient.reactive().getErrorCounters().get("retrieveMovieById", MovieErrorKind.NOT_FOUND));
+    }
+
+    @Test
+    void testRetrieveMoviesByIds() {
+        String endpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+        stubFor(get(urlPathMatching(endpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+        stubFor(get(urlEqualTo(endpoint + 100)).willReturn(aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withBodyFile("404_movieId.json")));
+        stubFor(get(urlEqualTo(endpoint + 101)).willReturn(serverError()));
+
+        List<MovieLookup> lookups = moviesRestClient.retrieveMoviesByIds(Arrays.asList(3, 100, 1, 101, 2));
+
+        assertEquals(Arrays.asList(3, 100, 1, 101, 2), lookups.stream().map(MovieLookup::getMovieId).collect(Collectors.toList()));
+        assertEquals(3, lookups.get(0).getMovie().getMovie_id());
+        assertTrue(lookups.get(1).isNotFound());
+        assertTrue(lookups.get(2).isFound());
+        assertTrue(lookups.get(3).isFailed());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), lookups.get(3).getError().getRawStatusCode());
+        assertTrue(lookups.get(4).isFound());
+    }
+
+    @Test
+    void testRetrieveMoviesByIds_EmptyAnswer() {
+        String endpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+        stubFor(get(urlPathMatching(endpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+        stubFor(get(urlEqualTo(endpoint + 102)).willReturn(aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)));
+
+        List<MovieLookup> lookups = moviesRestClient.retrieveMoviesByIds(Arrays.asList(1, 102, 2));
+
+        assertEquals(Arrays.asList(1, 102, 2), lookups.stream().map(MovieLookup::getMovieId).collect(Collectors.toList()));
+        assertTrue(lookups.get(0).isFound());
+        assertTrue(lookups.get(1).isNotFound());
+        assertTrue(lookups.get(2).isFound());
+    }
+
+    @Test
+    void testRetrieveMoviesByIds_BoundedFanOut() {
+        String endpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+        stubFor(get(urlPathMatching(endpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(200)));
+        List<Integer> movieIds = IntStream.rangeClosed(1, 40).boxed().collect(Collectors.toList());
+
+        long start = System.currentTimeMillis();
+        List<MovieLookup> lookups = moviesRestClient.retrieveMoviesByIds(movieIds, 20);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(movieIds, lookups.stream().map(lookup -> lookup.getMovie().getMovie_id()).collect(Collectors.toList()));
+        assertTrue(elapsed >= 2 * 200, "no more than 20 requests may be in flight");
+        assertTrue(elapsed < 40 * 200, "requests should be sent in parallel");
     }
 
     @Test
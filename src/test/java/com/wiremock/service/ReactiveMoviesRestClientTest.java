@@ -0,0 +1,309 @@
+package com.wiremock.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorKind;
+import com.wiremock.exception.MovieErrorResponse;
+import com.wiremock.exception.MovieNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class ReactiveMoviesRestClientTest {
+    ReactiveMoviesRestClient reactiveMoviesRestClient;
+    WebClient webClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        int port = wireMockServer.port();
+        String baseUrl = String.format("http://localhost:%s", port);
+        webClient = WebClient.create(baseUrl);
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(webClient);
+    }
+
+    @Test
+    void testRetrieveAllMovies() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("all-movies.json")));
+
+        List<Movie> movieList = reactiveMoviesRestClient.retrieveAllMovies().collectList().block();
+        assertFalse(movieList.isEmpty());
+    }
+
+    @Test
+    void testKeepsTheCodecsOfTheSuppliedWebClient() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().mixIn(Movie.class, TitleMixIn.class).build();
+        reactiveMoviesRestClient = new ReactiveMoviesRestClient(webClient.mutate()
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(codecs -> codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper)))
+                        .build())
+                .build());
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_ID.replace("{movieId}", "2")))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"movie_id\":2,\"title\":\"Dark Knight\",\"year\":2008}")));
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/x-ndjson")
+                        .withBody("{\"movie_id\":3,\"title\":\"The Dark Knight Rises\",\"year\":2012}\n")));
+
+        assertEquals("Dark Knight", reactiveMoviesRestClient.retrieveMovieById(2).block().getName());
+        assertEquals("The Dark Knight Rises", reactiveMoviesRestClient.streamAllMovies().blockFirst().getName());
+    }
+
+    abstract static class TitleMixIn {
+        @JsonProperty("title")
+        public String name;
+    }
+
+    @Test
+    void testStreamAllMovies_Ndjson() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            body.append("{\"movie_id\":").append(i).append(",\"name\":\"Movie ").append(i)
+                    .append("\",\"year\":2012,\"cast\":\"Cast\",\"release_date\":\"2012-07-20\"}\n");
+        }
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/x-ndjson")
+                        .withBody(body.toString())));
+
+        List<Movie> movies = reactiveMoviesRestClient.streamAllMovies().collectList().block();
+
+        assertEquals(1000, movies.size());
+        assertEquals(1000, movies.get(999).getMovie_id());
+        assertEquals(LocalDate.parse("2012-07-20"), movies.get(0).getRelease_date());
+    }
+
+    @Test
+    void testRetrieveAllMovies_StreamingMovieDecoder() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathMatching(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+        ReactiveMoviesRestClient decodingClient = ReactiveMoviesRestClient.builder()
+                .webClient(webClient)
+                .streamingMovieDecoder(true)
+                .buildReactive();
+
+        List<Movie> movies = decodingClient.retrieveAllMovies().collectList().block();
+        Movie movie = decodingClient.retrieveMovieById(7).block();
+
+        assertEquals(reactiveMoviesRestClient.retrieveAllMovies().collectList().block(), movies);
+        assertEquals(7, movie.getMovie_id());
+        assertEquals(LocalDate.parse("2008-07-18"), movie.getRelease_date());
+    }
+
+    @Test
+    void testStreamAllMovies_CancelAfterFirstElements() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_ALL_MOVIES))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("all-movies.json")));
+
+        List<Movie> movies = reactiveMoviesRestClient.streamAllMovies().take(2).collectList().block();
+
+        assertEquals(2, movies.size());
+        assertEquals("Batman Begins", movies.get(0).getName());
+    }
+
+    @Test
+    void testRetrieveMovieById() {
+        LocalDate date = LocalDate.parse("2008-07-18");
+        Movie movieExpected = new Movie(2, "Christian Bale, Heath Ledger , Michael Caine", "Dark Knight", date, 2008);
+        stubFor(get(urlPathMatching(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")));
+
+        assertEquals(movieExpected, reactiveMoviesRestClient.retrieveMovieById(2).block());
+    }
+
+    @Test
+    void testRetrieveMovieById_NotFound() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + 100))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("404_movieId.json")));
+
+        MovieErrorResponse movieErrorResponse = assertThrows(MovieErrorResponse.class,
+                () -> reactiveMoviesRestClient.retrieveMovieById(100).block());
+        assertEquals("Not Found", movieErrorResponse.getMessage());
+    }
+
+    @Test
+    void testRetrieveMovieById_NotFound_Stackless() {
+        stubFor(get(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + 100))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND.value())
+                        .withBodyFile("404_movieId.json")));
+        ReactiveMoviesRestClient stacklessClient = ReactiveMoviesRestClient.builder()
+                .webClient(webClient)
+                .stacklessErrors(true)
+                .buildReactive();
+
+        MovieErrorResponse movieErrorResponse = assertThrows(MovieNotFoundException.class,
+                () -> stacklessClient.retrieveMovieById(100).block());
+
+        assertEquals("Not Found", movieErrorResponse.getMessage());
+        assertEquals(0, movieErrorResponse.getStackTrace().length);
+        assertEquals(1, stacklessClient.getErrorCounters().get("retrieveMovieById", MovieErrorKind.NOT_FOUND));
+    }
+
+    @Test
+    void testRetrieveMovieByYear_ConcurrentCalls() {
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .willReturn(aResponse().withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .withBodyFile("movies_by_year_response.json")
+                        .withFixedDelay(500)));
+
+        long start = System.currentTimeMillis();
+        List<Movie> movies = Flux.range(2000, 20)
+                .flatMap(year -> reactiveMoviesRestClient.retrieveMovieByYear(year))
+                .collectList()
+                .block();
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(40, movies.size());
+        verify(exactly(20), getRequestedFor(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR)));
+        assertTrue(elapsed < 20 * 500, "calls should overlap instead of running one after another");
+    }
+
+    @Test
+    void testRetrieveMovieById_ConcurrentCallsShareOneExchange() {
+        stubFor(get(urlPathMatching(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + "[0-9]"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movie_2_dynamic_response_templat.json")
+                        .withFixedDelay(500)));
+
+        List<Movie> movies = Flux.range(0, 20)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieById(2))
+                .collectList()
+                .block();
+
+        assertEquals(20, movies.size());
+        verify(exactly(1), getRequestedFor(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + 2)));
+        String name = movies.get(1).getName();
+        movies.get(0).setName("Changed by one caller");
+        assertEquals(name, movies.get(1).getName());
+
+        reactiveMoviesRestClient.retrieveMovieById(2).block();
+        verify(exactly(2), getRequestedFor(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "") + 2)));
+    }
+
+    @Test
+    void testRetrieveMovieByYear_ConcurrentCallersGetTheirOwnMovies() {
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("movies_by_year_response.json")
+                        .withFixedDelay(500)));
+
+        List<List<Movie>> results = Flux.range(0, 2)
+                .flatMap(i -> reactiveMoviesRestClient.retrieveMovieByYear(2012).collectList())
+                .collectList()
+                .block();
+
+        verify(exactly(1), getRequestedFor(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR + "?year=2012")));
+        String name = results.get(1).get(0).getName();
+        results.get(0).get(0).setName("Changed by one caller");
+        assertEquals(name, results.get(1).get(0).getName());
+    }
+
+    @Test
+    void testRetrieveMovieByYear_BlockingCallersShareError() throws Exception {
+        stubFor(get(urlPathEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR))
+                .willReturn(serverError().withFixedDelay(500)));
+        MoviesRestClient moviesRestClient = new MoviesRestClient(reactiveMoviesRestClient);
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> assertThrows(MovieErrorResponse.class,
+                        () -> moviesRestClient.retrieveMovieByYear(2012))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(exactly(1), getRequestedFor(urlEqualTo(MoviesAppConstants.GET_MOVIE_BY_YEAR + "?year=2012")));
+    }
+
+    @Test
+    void testUpdateMovies_Bulk() {
+        String endpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+        stubFor(put(urlPathMatching(endpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(HttpStatus.OK.value())
+                        .withBodyFile("updated_movie.json")));
+        stubFor(put(urlEqualTo(endpoint + 5)).willReturn(aResponse().withStatus(HttpStatus.NOT_FOUND.value())));
+        Flux<Movie> movies = Flux.range(1, 50)
+                .map(i -> new Movie(i, "Updated Cast", "Movie " + i, LocalDate.parse("2012-07-20"), 2012));
+
+        IngestSummary summary = ReactiveMoviesRestClient.summarize(reactiveMoviesRestClient.updateMovies(movies, 8)).block();
+
+        assertEquals(50, summary.getTotal());
+        assertEquals(49, summary.getSucceeded());
+        assertEquals(5, summary.getFailures().get(0).getMovie().getMovie_id());
+        verify(exactly(50), putRequestedFor(urlPathMatching(endpoint + "[0-9]+")));
+    }
+}
@@ -0,0 +1,182 @@
+package com.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.wiremock.Movie;
+import com.wiremock.constants.MoviesAppConstants;
+import com.wiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class UpdateCoalescingTest {
+    MoviesRestClient moviesRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig().port(8088).notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    String movieByIdEndpoint = MoviesAppConstants.GET_MOVIE_BY_ID.replaceAll("\\{movieId\\}", "");
+
+    @BeforeEach
+    void setUp() {
+        stubFor(put(urlPathMatching(movieByIdEndpoint + "[0-9]+"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{{{request.body}}}")
+                        .withFixedDelay(100)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (moviesRestClient != null) {
+            moviesRestClient.close();
+        }
+    }
+
+    @Test
+    void sendsOnlyTheLatestUpdateOfAWindow() {
+        moviesRestClient = client(UpdateCoalescingPolicy.builder().window(Duration.ofMillis(200)).build());
+
+        List<CompletableFuture<Movie>> updates = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            updates.add(moviesRestClient.updateMovieAsync(2, movie(2, "Cast " + i)));
+        }
+        updates.add(moviesRestClient.updateMovieAsync(3, movie(3, "Other Cast")));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Cast 10", updates.get(i).join().getCast());
+        }
+        assertEquals("Other Cast", updates.get(10).join().getCast());
+        verify(exactly(1), putRequestedFor(urlEqualTo(movieByIdEndpoint + 2)));
+        verify(exactly(1), putRequestedFor(urlEqualTo(movieByIdEndpoint + 3)));
+    }
+
+    @Test
+    void keepsOneUpdateInFlightPerMovie() throws InterruptedException {
+        moviesRestClient = client(UpdateCoalescingPolicy.builder().window(Duration.ofMillis(20)).build());
+
+        CompletableFuture<Movie> first = moviesRestClient.updateMovieAsync(2, movie(2, "First"));
+        Thread.sleep(60);
+        CompletableFuture<Movie> second = moviesRestClient.updateMovieAsync(2, movie(2, "Second"));
+        CompletableFuture<Movie> third = moviesRestClient.updateMovieAsync(2, movie(2, "Third"));
+
+        assertEquals("First", first.join().getCast());
+        assertFalse(second.isDone());
+        assertEquals("Third", second.join().getCast());
+        assertEquals("Third", third.join().getCast());
+        List<String> sent = new ArrayList<>();
+        findAll(putRequestedFor(urlEqualTo(movieByIdEndpoint + 2)))
+                .forEach(request -> sent.add(request.getBodyAsString().replaceAll(".*\"cast\":\"([^\"]*)\".*", "$1")));
+        assertEquals(2, sent.size());
+        assertTrue(sent.contains("First") && sent.contains("Third"));
+    }
+
+    @Test
+    void flushesWhenTooManyMoviesArePending() {
+        moviesRestClient = client(UpdateCoalescingPolicy.builder()
+                .window(Duration.ofMinutes(1))
+                .maxPendingMovies(3)
+                .build());
+
+        CompletableFuture<Movie> first = moviesRestClient.updateMovieAsync(1, movie(1, "Cast"));
+        moviesRestClient.updateMovieAsync(2, movie(2, "Cast"));
+        moviesRestClient.updateMovieAsync(3, movie(3, "Cast"));
+
+        assertEquals(1, first.join().getMovie_id());
+        verify(exactly(3), putRequestedFor(urlPathMatching(movieByIdEndpoint + "[0-9]+")));
+    }
+
+    @Test
+    void doesNotCountMoviesWaitingBehindAnInFlightUpdate() {
+        moviesRestClient = client(UpdateCoalescingPolicy.builder()
+                .window(Duration.ofMillis(500))
+                .maxPendingMovies(2)
+                .build());
+
+        List<CompletableFuture<Movie>> updates = new ArrayList<>();
+        updates.add(moviesRestClient.updateMovieAsync(1, movie(1, "First")));
+        updates.add(moviesRestClient.updateMovieAsync(2, movie(2, "First")));
+        updates.add(moviesRestClient.updateMovieAsync(1, movie(1, "Second")));
+        updates.add(moviesRestClient.updateMovieAsync(2, movie(2, "Second")));
+        updates.add(moviesRestClient.updateMovieAsync(3, movie(3, "First")));
+        updates.add(moviesRestClient.updateMovieAsync(3, movie(3, "Second")));
+
+        updates.forEach(CompletableFuture::join);
+        verify(exactly(2), putRequestedFor(urlEqualTo(movieByIdEndpoint + 1)));
+        verify(exactly(1), putRequestedFor(urlEqualTo(movieByIdEndpoint + 3)));
+    }
+
+    @Test
+    void drainsPendingUpdatesOnClose() {
+        moviesRestClient = client(UpdateCoalescingPolicy.builder().window(Duration.ofMinutes(1)).build());
+        stubFor(put(urlEqualTo(movieByIdEndpoint + 5)).willReturn(aResponse().withStatus(HttpStatus.NOT_FOUND.value())));
+
+        CompletableFuture<Movie> update = moviesRestClient.updateMovieAsync(4, movie(4, "Cast"));
+        CompletableFuture<Movie> missing = moviesRestClient.updateMovieAsync(5, movie(5, "Cast"));
+        moviesRestClient.close();
+
+        assertEquals(4, update.join().getMovie_id());
+        CompletionException failure = assertThrows(CompletionException.class, missing::join);
+        assertTrue(failure.getCause() instanceof MovieErrorResponse);
+        assertThrows(CompletionException.class, () -> moviesRestClient.updateMovieAsync(4, movie(4, "Late")).join());
+        moviesRestClient = null;
+    }
+
+    @Test
+    void givesUpDrainingAfterTheDrainTimeout() {
+        moviesRestClient = client(UpdateCoalescingPolicy.builder()
+                .window(Duration.ofMinutes(1))
+                .drainTimeout(Duration.ofMillis(200))
+                .build());
+        stubFor(put(urlEqualTo(movieByIdEndpoint + 6)).willReturn(aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{{{request.body}}}")
+                .withFixedDelay(2000)));
+
+        CompletableFuture<Movie> update = moviesRestClient.updateMovieAsync(6, movie(6, "Cast"));
+        long start = System.currentTimeMillis();
+        moviesRestClient.close();
+
+        assertTrue(System.currentTimeMillis() - start < 1500, "close should stop waiting after the drain timeout");
+        assertFalse(update.isDone());
+        moviesRestClient = null;
+    }
+
+    private MoviesRestClient client(UpdateCoalescingPolicy policy) {
+        return MoviesRestClient.builder()
+                .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+                .updateCoalescing(policy)
+                .build();
+    }
+
+    private static Movie movie(int movieId, String cast) {
+        return new Movie(movieId, cast, "Movie " + movieId, LocalDate.parse("2012-07-20"), 2012);
+    }
+}